@@ -2,6 +2,7 @@ package com.example.userapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 /**
  * The main entry point for the User API application.
@@ -11,11 +12,15 @@ public class UserApiApplication {
 
 	/**
 	 * The main method which serves as the entry point for the application.
+	 * When started as a one-shot import or export, the application exits once the command is done.
 	 *
 	 * @param args Command line arguments passed to the application.
 	 */
 	public static void main(String[] args) {
-		SpringApplication.run(UserApiApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(UserApiApplication.class, args);
+		if (context.getBeanProvider(UserImportExportRunner.class).getIfAvailable() != null) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
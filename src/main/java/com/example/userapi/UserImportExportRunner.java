@@ -0,0 +1,68 @@
+package com.example.userapi;
+
+import com.example.userapi.dto.ImportReportDTO;
+import com.example.userapi.service.UserDataFormat;
+import com.example.userapi.service.UserImportExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line import and export of users, for migrations and backups.
+ * Enabled only when {@code userapi.cli.command} is set, for example:
+ * <pre>
+ * java -jar userapi.jar --spring.main.web-application-type=none \
+ *      --userapi.cli.command=import --userapi.cli.file=users.csv
+ * </pre>
+ * The format follows the file extension ({@code .csv} or NDJSON otherwise) unless
+ * {@code userapi.cli.format} is given.
+ */
+@Component
+@ConditionalOnProperty(prefix = "userapi.cli", name = "command")
+@Slf4j
+public class UserImportExportRunner implements ApplicationRunner {
+
+	private final UserImportExportService userImportExportService;
+	private final String command;
+	private final Path file;
+	private final UserDataFormat format;
+
+	public UserImportExportRunner(UserImportExportService userImportExportService,
+								  @Value("${userapi.cli.command}") String command,
+								  @Value("${userapi.cli.file}") Path file,
+								  @Value("${userapi.cli.format:}") String format) {
+		this.userImportExportService = userImportExportService;
+		this.command = command;
+		this.file = file;
+		this.format = format.isBlank() ? UserDataFormat.fromFileName(file.toString()) : UserDataFormat.valueOf(format.toUpperCase());
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		switch (command) {
+			case "import" -> {
+				try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+					ImportReportDTO report = userImportExportService.importUsers(in, format);
+					report.getFailures().forEach(failure ->
+							log.warn("Record {} rejected ({}): {}", failure.getIndex(), failure.getStatus(), failure.getMessage()));
+				}
+			}
+			case "export" -> {
+				try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+					userImportExportService.exportUsers(out, format);
+				}
+			}
+			default -> throw new IllegalArgumentException("Unknown userapi.cli.command '" + command + "', expected import or export");
+		}
+	}
+}
@@ -0,0 +1,367 @@
+package com.example.userapi.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache with a node-local level (L1) in front of a Redis level shared by every node (L2).
+ * Keys are stored as strings on both levels, so invalidation messages can name them.
+ * <p>
+ * Loads are single-flight: the local cache runs one loader per key on this node, and the node
+ * that wins a short Redis lease loads for all others, which wait for the shared entry instead of
+ * querying the database themselves.
+ * <p>
+ * Writes go to both levels and are broadcast, so other nodes drop their local copy. Evictions
+ * leave a short-lived tombstone on L2 rather than deleting the entry, so a load that started
+ * before the eviction cannot put the old value back. A failing Redis only disables L2; reads
+ * then fall through to the loader.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private static final byte[] TOMBSTONE = new byte[0];
+    private static final long LEASE_POLL_MILLIS = 10;
+
+    private final String name;
+    private final Cache local;
+    private final TwoLevelCacheManager manager;
+    private final RedisOperations<String, byte[]> redis;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private final LongAdder sharedErrors = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    /**
+     * Creates a cache level pair.
+     *
+     * @param name    The cache name.
+     * @param local   The node-local cache.
+     * @param manager The manager that holds the Redis settings and broadcasts invalidations.
+     */
+    TwoLevelCache(String name, Cache local, TwoLevelCacheManager manager) {
+        this.name = name;
+        this.local = local;
+        this.manager = manager;
+        this.redis = manager.getRedis();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    /**
+     * Returns the node-local level.
+     *
+     * @return The L1 cache.
+     */
+    public Cache getLocal() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String id = key(key);
+        ValueWrapper cached = local.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Object shared = readShared(id);
+        if (shared == null) {
+            return null;
+        }
+        local.put(id, shared);
+        return new SimpleValueWrapper(shared);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Looks up several keys at once: the local level first, then the shared level for every key missing
+     * locally, in a single round trip. Values found on the shared level are copied to the local level.
+     *
+     * @param keys The keys to look up.
+     * @return The cached values by key; keys cached on neither level are absent.
+     */
+    public <K> Map<K, Object> getAll(Collection<K> keys) {
+        Map<K, Object> values = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            ValueWrapper cached = local.get(key(key));
+            if (cached != null && cached.get() != null) {
+                values.put(key, cached.get());
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return values;
+        }
+        try {
+            List<byte[]> shared = redis.opsForValue().multiGet(missing.stream().map(key -> sharedKey(key(key))).toList());
+            for (int i = 0; shared != null && i < missing.size(); i++) {
+                byte[] bytes = shared.get(i);
+                if (bytes != null && bytes.length > 0) {
+                    Object value = manager.getSerializer().deserialize(bytes);
+                    local.put(key(missing.get(i)), value);
+                    values.put(missing.get(i), value);
+                }
+            }
+        } catch (RuntimeException e) {
+            sharedFailure("multi-get", String.valueOf(missing), e);
+        }
+        return values;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String id = key(key);
+        return local.get(id, () -> load(id, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String id = key(key);
+        local.put(id, value);
+        writeShared(id, value, false);
+        manager.publish(name, id);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String id = key(key);
+        ValueWrapper existing = local.putIfAbsent(id, value);
+        if (existing == null) {
+            writeShared(id, value, true);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String id = key(key);
+        boolean present = local.evictIfPresent(id);
+        try {
+            redis.opsForValue().set(sharedKey(id), TOMBSTONE, manager.getLoadLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            sharedFailure("evict", id, e);
+        }
+        manager.publish(name, id);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        try (Cursor<String> keys = redis.scan(ScanOptions.scanOptions().match(sharedKey("*")).count(1000).build())) {
+            List<String> batch = new ArrayList<>();
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == 1000) {
+                    redis.delete(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                redis.delete(batch);
+            }
+        } catch (RuntimeException e) {
+            sharedFailure("clear", "*", e);
+        }
+        manager.publish(name, null);
+    }
+
+    /**
+     * Drops a key from the local level only, on an invalidation from another node.
+     *
+     * @param key The key as named in the invalidation message.
+     */
+    void evictLocal(String key) {
+        invalidationsReceived.increment();
+        local.evict(key);
+    }
+
+    /**
+     * Drops every key from the local level only, on an invalidation from another node.
+     */
+    void clearLocal() {
+        invalidationsReceived.increment();
+        local.clear();
+    }
+
+    /** @return Loads answered from the shared level. */
+    public long getSharedHits() {
+        return sharedHits.sum();
+    }
+
+    /** @return Loads that missed the shared level. */
+    public long getSharedMisses() {
+        return sharedMisses.sum();
+    }
+
+    /** @return Shared level operations that failed and were skipped. */
+    public long getSharedErrors() {
+        return sharedErrors.sum();
+    }
+
+    /** @return Invalidations received from other nodes. */
+    public long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(String id, Callable<T> valueLoader) throws Exception {
+        Object shared = readShared(id);
+        if (shared != null) {
+            sharedHits.increment();
+            return (T) shared;
+        }
+        sharedMisses.increment();
+        boolean leaseOwner = acquireLease(id);
+        try {
+            if (!leaseOwner) {
+                shared = awaitShared(id);
+                if (shared != null) {
+                    sharedHits.increment();
+                    return (T) shared;
+                }
+            }
+            T value = valueLoader.call();
+            writeShared(id, value, true);
+            return value;
+        } finally {
+            if (leaseOwner) {
+                releaseLease(id);
+            }
+        }
+    }
+
+    /**
+     * Waits while another node holds the load lease, until it publishes the value or gives the lease up.
+     */
+    private Object awaitShared(String id) {
+        long deadline = System.nanoTime() + manager.getLoadLease().toNanos();
+        try {
+            while (System.nanoTime() < deadline && leaseHeld(id)) {
+                Thread.sleep(LEASE_POLL_MILLIS);
+                Object shared = readShared(id);
+                if (shared != null) {
+                    return shared;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return readShared(id);
+    }
+
+    private Object readShared(String id) {
+        try {
+            byte[] bytes = redis.opsForValue().get(sharedKey(id));
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            return manager.getSerializer().deserialize(bytes);
+        } catch (RuntimeException e) {
+            sharedFailure("read", id, e);
+            return null;
+        }
+    }
+
+    private void writeShared(String id, Object value, boolean ifAbsent) {
+        if (value == null) {
+            return;
+        }
+        try {
+            byte[] bytes = manager.getSerializer().serialize(value);
+            long ttl = manager.getTimeToLive().toMillis();
+            if (ifAbsent) {
+                redis.opsForValue().setIfAbsent(sharedKey(id), bytes, ttl, TimeUnit.MILLISECONDS);
+            } else {
+                redis.opsForValue().set(sharedKey(id), bytes, ttl, TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            sharedFailure("write", id, e);
+        }
+    }
+
+    private boolean acquireLease(String id) {
+        try {
+            return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(leaseKey(id),
+                    manager.getNodeId().getBytes(StandardCharsets.UTF_8),
+                    manager.getLoadLease().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (RuntimeException e) {
+            sharedFailure("lease", id, e);
+            return true;
+        }
+    }
+
+    private boolean leaseHeld(String id) {
+        try {
+            return Boolean.TRUE.equals(redis.hasKey(leaseKey(id)));
+        } catch (RuntimeException e) {
+            sharedFailure("lease", id, e);
+            return false;
+        }
+    }
+
+    private void releaseLease(String id) {
+        try {
+            redis.delete(leaseKey(id));
+        } catch (RuntimeException e) {
+            sharedFailure("lease", id, e);
+        }
+    }
+
+    private void sharedFailure(String operation, String id, RuntimeException e) {
+        sharedErrors.increment();
+        log.debug("Shared cache {} of {}::{} failed, continuing without it", operation, name, id, e);
+    }
+
+    private String sharedKey(String id) {
+        return manager.getKeyPrefix() + name + "::" + id;
+    }
+
+    private String leaseKey(String id) {
+        return sharedKey(id) + ":lease";
+    }
+
+    private static String key(Object key) {
+        return String.valueOf(key);
+    }
+}
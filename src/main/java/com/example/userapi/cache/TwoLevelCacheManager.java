@@ -0,0 +1,129 @@
+package com.example.userapi.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager for multi-node deployments: every cache of a node-local manager gets a shared Redis
+ * level behind it (see {@link TwoLevelCache}).
+ * Writes are broadcast on a Redis channel as {@code <node> <cache> [<key>]}; this manager listens on
+ * the channel and drops the named keys from its local caches, ignoring its own messages. Redis pub/sub
+ * does not redeliver, so the local time to live bounds how long a node can serve a value after a lost
+ * message.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    @Getter
+    private final CacheManager localCacheManager;
+    @Getter
+    private final RedisTemplate<String, byte[]> redis;
+    @Getter
+    private final RedisSerializer<Object> serializer;
+    @Getter
+    private final String keyPrefix;
+    @Getter
+    private final String channel;
+    @Getter
+    private final Duration timeToLive;
+    @Getter
+    private final Duration loadLease;
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the manager.
+     *
+     * @param localCacheManager The manager of the node-local caches.
+     * @param redis             Template for the shared entries and invalidation messages, with byte array values.
+     * @param serializer        Serializer for shared entries.
+     * @param keyPrefix         Prefix of every shared key, followed by {@code <cache>::<key>}.
+     * @param channel           Channel on which invalidations are broadcast.
+     * @param timeToLive        How long a shared entry lives.
+     * @param loadLease         How long one node may load a key while other nodes wait for it.
+     */
+    public TwoLevelCacheManager(CacheManager localCacheManager,
+                                RedisTemplate<String, byte[]> redis,
+                                RedisSerializer<Object> serializer,
+                                String keyPrefix,
+                                String channel,
+                                Duration timeToLive,
+                                Duration loadLease) {
+        this.localCacheManager = localCacheManager;
+        this.redis = redis;
+        this.serializer = serializer;
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+        this.timeToLive = timeToLive;
+        this.loadLease = loadLease;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache local = localCacheManager.getCache(name);
+        if (local == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache(n, local, this));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return localCacheManager.getCacheNames();
+    }
+
+    /**
+     * Tells the other nodes to drop a key, or a whole cache, from their local level.
+     *
+     * @param cacheName The cache that changed.
+     * @param key       The key that changed, or null if the cache was cleared.
+     */
+    void publish(String cacheName, String key) {
+        String message = nodeId + " " + cacheName + (key != null ? " " + key : "");
+        try {
+            redis.convertAndSend(channel, message.getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast invalidation of {}::{}", cacheName, key, e);
+        }
+    }
+
+    /**
+     * Applies an invalidation broadcast by another node.
+     *
+     * @param message The message, {@code <node> <cache> [<key>]}.
+     * @param pattern The pattern the channel matched, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (!(getCache(parts[1]) instanceof TwoLevelCache cache)) {
+            return;
+        }
+        if (parts.length == 2) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
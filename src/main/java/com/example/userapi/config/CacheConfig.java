@@ -0,0 +1,61 @@
+package com.example.userapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Enables Spring's caching annotations.
+ * The cache manager itself is auto-configured from the {@code spring.cache.*} properties:
+ * a Caffeine (W-TinyLFU) cache bounded by size and time to live, with statistics recorded
+ * and published as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Name of the cache holding UserDTOs keyed by user id. */
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Switches Caffeine to async mode when requests run on virtual threads.
+     * A synchronous Caffeine load runs inside {@code ConcurrentHashMap.compute}, which holds a
+     * monitor; a JDBC call made there pins the virtual thread to its carrier for the whole query.
+     * In async mode the map only stores a future, the load runs on the given executor, and callers
+     * park on the future, which does not pin.
+     *
+     * @param cacheProperties The {@code spring.cache.*} properties, for the Caffeine spec.
+     * @param executor        The executor to run cache loads on.
+     * @return A customizer applied to the auto-configured CaffeineCacheManager.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public CacheManagerCustomizer<CaffeineCacheManager> asyncCaffeineCustomizer(
+            CacheProperties cacheProperties,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        return cacheManager -> useAsyncMode(cacheManager, cacheProperties.getCaffeine().getSpec(), executor);
+    }
+
+    /**
+     * Reconfigures a cache manager to load asynchronously on the given executor.
+     *
+     * @param cacheManager The cache manager to reconfigure.
+     * @param spec         The Caffeine spec to keep applying, or null for none.
+     * @param executor     The executor to run cache loads on.
+     */
+    static void useAsyncMode(CaffeineCacheManager cacheManager, String spec, Executor executor) {
+        Caffeine<Object, Object> caffeine = spec != null ? Caffeine.from(spec) : Caffeine.newBuilder();
+        cacheManager.setCaffeine(caffeine.executor(executor));
+        cacheManager.setAsyncCacheMode(true);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.userapi.config;
+
+import com.example.userapi.cache.TwoLevelCache;
+import com.example.userapi.cache.TwoLevelCacheManager;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.service.UserSearchIndex;
+import com.example.userapi.service.UserSearchIndexSync;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * Puts a Redis cache shared by every node behind the local Caffeine cache, for deployments with
+ * several replicas. Replaces the auto-configured cache manager when
+ * {@code userapi.cache.redis.enabled=true}; the Redis connection comes from {@code spring.data.redis.*}.
+ * The same connection keeps the nodes' search indexes in step.
+ */
+@Configuration
+@ConditionalOnProperty(name = DistributedCacheConfig.ENABLED_PROPERTY, havingValue = "true")
+@EnableConfigurationProperties(CacheProperties.class)
+public class DistributedCacheConfig {
+
+    /** Property that enables the shared cache level. */
+    public static final String ENABLED_PROPERTY = "userapi.cache.redis.enabled";
+
+    /**
+     * Creates the two-level cache manager.
+     * The local level is built as Spring Boot would build it, from the {@code spring.cache.*} properties
+     * and the Caffeine customizers, such as the async mode used with virtual threads.
+     *
+     * @param cacheProperties   The {@code spring.cache.*} properties.
+     * @param customizers       Customizers of the local cache manager.
+     * @param connectionFactory The Redis connection factory.
+     * @param objectMapper      The application's object mapper, copied for the shared entries.
+     * @param keyPrefix         Prefix of every shared key.
+     * @param channel           Channel on which invalidations are broadcast.
+     * @param timeToLive        How long a shared entry lives.
+     * @param loadLease         How long one node may load a key while other nodes wait for it.
+     * @return The cache manager.
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(CacheProperties cacheProperties,
+                                             ObjectProvider<CacheManagerCustomizer<CaffeineCacheManager>> customizers,
+                                             RedisConnectionFactory connectionFactory,
+                                             ObjectMapper objectMapper,
+                                             @Value("${userapi.cache.redis.key-prefix:userapi:}") String keyPrefix,
+                                             @Value("${userapi.cache.redis.channel:userapi:cache-invalidation}") String channel,
+                                             @Value("${userapi.cache.redis.ttl:30m}") Duration timeToLive,
+                                             @Value("${userapi.cache.redis.load-lease:2s}") Duration loadLease) {
+        CaffeineCacheManager local = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (spec != null) {
+            local.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            local.setCacheNames(cacheProperties.getCacheNames());
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(local));
+
+        return new TwoLevelCacheManager(local, redisTemplate(connectionFactory), userSerializer(objectMapper),
+                keyPrefix, channel, timeToLive, loadLease);
+    }
+
+    /**
+     * Broadcasts this node's search index writes and reloads the users written by the other nodes.
+     *
+     * @param searchIndex  This node's search index.
+     * @param cacheManager The cache manager, whose template and node id are reused.
+     * @param channel      Channel on which index writes are broadcast.
+     * @return The synchronizer.
+     */
+    @Bean
+    public UserSearchIndexSync userSearchIndexSync(UserSearchIndex searchIndex,
+                                                   TwoLevelCacheManager cacheManager,
+                                                   @Value("${userapi.search.redis.channel:userapi:search-index}") String channel) {
+        return new UserSearchIndexSync(searchIndex, cacheManager.getRedis(), cacheManager.getNodeId(), channel);
+    }
+
+    /**
+     * Subscribes the cache manager to invalidations, and the search index synchronizer to index writes,
+     * broadcast by the other nodes.
+     *
+     * @param connectionFactory   The Redis connection factory.
+     * @param cacheManager        The cache manager that applies the invalidations.
+     * @param userSearchIndexSync The synchronizer that applies the index writes.
+     * @return The listener container.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager,
+                                                                   UserSearchIndexSync userSearchIndexSync) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getChannel()));
+        container.addMessageListener(userSearchIndexSync, new ChannelTopic(userSearchIndexSync.getChannel()));
+        return container;
+    }
+
+    /**
+     * Publishes the usual {@code cache.*} metrics of the local level, plus {@code cache.shared.gets}
+     * (tagged {@code result=hit|miss}), {@code cache.shared.errors} and {@code cache.invalidations.received}.
+     *
+     * @return The binder provider used by the cache metrics registrar.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> registry -> {
+            if (cache.getLocal() instanceof CaffeineCache local) {
+                caffeine.getMeterBinder(local, tags).bindTo(registry);
+            }
+            Tags cacheTags = Tags.concat(tags, "cache", cache.getName());
+            FunctionCounter.builder("cache.shared.gets", cache, TwoLevelCache::getSharedHits)
+                    .tags(cacheTags).tag("result", "hit")
+                    .description("Local cache misses answered from the shared cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.shared.gets", cache, TwoLevelCache::getSharedMisses)
+                    .tags(cacheTags).tag("result", "miss")
+                    .description("Local cache misses that also missed the shared cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.shared.errors", cache, TwoLevelCache::getSharedErrors)
+                    .tags(cacheTags)
+                    .description("Shared cache operations that failed and were skipped")
+                    .register(registry);
+            FunctionCounter.builder("cache.invalidations.received", cache, TwoLevelCache::getInvalidationsReceived)
+                    .tags(cacheTags)
+                    .description("Invalidations received from other nodes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Creates a template for shared entries and invalidation messages, which are byte arrays serialized by
+     * the caches themselves.
+     *
+     * @param connectionFactory The Redis connection factory.
+     * @return The template.
+     */
+    public static RedisTemplate<String, byte[]> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Creates the JSON serializer for cached UserDTOs. Unlike API responses, shared entries keep the version,
+     * which conditional requests compare against.
+     *
+     * @param objectMapper The application's object mapper.
+     * @return The serializer.
+     */
+    public static RedisSerializer<Object> userSerializer(ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy().addMixIn(UserDTO.class, VersionedUserDTO.class);
+        return new Jackson2JsonRedisSerializer<>(mapper, mapper.constructType(UserDTO.class));
+    }
+
+    /** Mix-in that serializes UserDTO's version. */
+    abstract static class VersionedUserDTO {
+        @JsonProperty
+        @JsonIgnore(false)
+        private Long version;
+    }
+}
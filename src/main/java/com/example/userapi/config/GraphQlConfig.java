@@ -0,0 +1,63 @@
+package com.example.userapi.config;
+
+import com.example.userapi.service.UserService;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Limits on GraphQL requests, checked before any field is fetched.
+ * A request is rejected when its selection nests deeper than the maximum depth, or when its estimated
+ * cost exceeds the maximum complexity. Each field costs one, and the fields selected below a list
+ * count once per element the list can hold: {@code first} users of a connection, or one per id.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Creates the instrumentation rejecting deeply nested requests.
+     *
+     * @param maxDepth The deepest selection accepted.
+     * @return The depth-limiting instrumentation, picked up by the GraphQL auto-configuration.
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(@Value("${userapi.graphql.max-depth:15}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Creates the instrumentation rejecting requests that would load too many users or fields.
+     *
+     * @param maxComplexity The highest estimated cost accepted.
+     * @return The complexity-limiting instrumentation, picked up by the GraphQL auto-configuration.
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${userapi.graphql.max-complexity:5000}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, GraphQlConfig::fieldComplexity);
+    }
+
+    /**
+     * Estimates the cost of a field: one, plus its children's cost times the number of elements it can return.
+     *
+     * @param environment     The field and its arguments.
+     * @param childComplexity The cost of the fields selected below it.
+     * @return The cost of the field.
+     */
+    static int fieldComplexity(FieldComplexityEnvironment environment, int childComplexity) {
+        Object first = environment.getArguments().get("first");
+        Object ids = environment.getArguments().get("ids");
+        int elements = 1;
+        if (first instanceof Integer size) {
+            elements = Math.min(Math.max(size, 1), UserService.MAX_PAGE_SIZE);
+        } else if (ids instanceof Collection<?> idList) {
+            elements = Math.max(idList.size(), 1);
+        }
+        return 1 + elements * childComplexity;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.userapi.config;
+
+import com.example.userapi.controller.UserGrpcService;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Starts the gRPC server for internal clients, on its own port next to the HTTP server.
+ * Calls are timed as {@code grpc.server.processing.duration}, tagged by method and status code.
+ * Only started when {@code userapi.grpc.enabled} is true and the application runs a web server, so
+ * command-line imports and exports ({@code spring.main.web-application-type=none}) bind no port.
+ */
+@Configuration
+@ConditionalOnProperty(name = "userapi.grpc.enabled", havingValue = "true")
+@ConditionalOnWebApplication
+@Slf4j
+public class GrpcServerConfig {
+
+    /**
+     * Creates and starts the gRPC server. On shutdown it stops accepting calls and lets running ones finish.
+     *
+     * @param userGrpcService The user service implementation.
+     * @param meterRegistry   Registry for the call metrics.
+     * @param port            The port to listen on; 0 picks a free one.
+     * @return The running server; {@link Server#getPort()} is the bound port.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public Server grpcServer(UserGrpcService userGrpcService,
+                             MeterRegistry meterRegistry,
+                             @Value("${userapi.grpc.port:9090}") int port) {
+        Server server = ServerBuilder.forPort(port)
+                .addService(ServerInterceptors.intercept(userGrpcService, new MetricCollectingServerInterceptor(meterRegistry)))
+                .build();
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + port, e);
+        }
+        log.info("gRPC server started on port {}", server.getPort());
+        return server;
+    }
+}
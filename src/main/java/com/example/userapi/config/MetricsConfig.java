@@ -0,0 +1,37 @@
+package com.example.userapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics configuration.
+ * HTTP endpoints ({@code http.server.requests}), repository queries ({@code spring.data.repository.invocations}),
+ * the connection pool ({@code hikaricp.*}) and Hibernate statistics ({@code hibernate.*}) are instrumented by
+ * Spring Boot; this class adds timing of the service classes annotated with {@code @Timed}.
+ * Percentile histograms are enabled per meter through the {@code management.metrics.distribution.*} properties,
+ * and everything is scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Timer recording every public UserService method, tagged with class, method and exception. */
+    public static final String USER_SERVICE_TIMER = "users.service";
+
+    /** Timer recording every public UserBatchService method. */
+    public static final String USER_BATCH_TIMER = "users.batch";
+
+    /**
+     * Creates the aspect that records {@code @Timed} methods and classes.
+     * Failed calls are recorded with the exception's simple class name in the {@code exception} tag,
+     * so a timer's count filtered on that tag is the method's error counter.
+     *
+     * @param meterRegistry The registry to record timers in.
+     * @return The TimedAspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.userapi.config;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the password encoders supported by the application.
+ * Encoded passwords are prefixed with the id of the algorithm that produced them
+ * (for example {@code {bcrypt}$2a$10$...}), so the algorithm and its cost can be
+ * changed per deployment while existing hashes keep verifying.
+ */
+public final class PasswordEncoderFactory {
+
+    /** Encoder id for BCrypt. */
+    public static final String BCRYPT = "bcrypt";
+
+    /** Encoder id for PBKDF2 with HMAC-SHA256. */
+    public static final String PBKDF2 = "pbkdf2";
+
+    /** Encoder id for Argon2id. */
+    public static final String ARGON2 = "argon2";
+
+    private static final int SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private PasswordEncoderFactory() {
+    }
+
+    /**
+     * Creates a delegating encoder that hashes new passwords with the selected algorithm and
+     * verifies hashes from any supported algorithm. Hashes without an id prefix, as written before
+     * the encoder was configurable, are treated as BCrypt.
+     *
+     * @param idForEncode       The id of the algorithm used for new hashes.
+     * @param bcryptStrength    The BCrypt log2 cost factor.
+     * @param pbkdf2Iterations  The PBKDF2 iteration count.
+     * @param argon2MemoryKb    The Argon2 memory cost in KiB.
+     * @param argon2Iterations  The Argon2 iteration count.
+     * @param argon2Parallelism The Argon2 degree of parallelism.
+     * @return A DelegatingPasswordEncoder configured with all supported algorithms.
+     * @throws IllegalArgumentException if idForEncode is not a supported algorithm.
+     */
+    public static DelegatingPasswordEncoder delegating(String idForEncode, int bcryptStrength, int pbkdf2Iterations,
+                                                       int argon2MemoryKb, int argon2Iterations, int argon2Parallelism) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt(bcryptStrength));
+        encoders.put(PBKDF2, pbkdf2(pbkdf2Iterations));
+        encoders.put(ARGON2, argon2(argon2MemoryKb, argon2Iterations, argon2Parallelism));
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Unsupported password encoder '" + idForEncode
+                    + "', expected one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+
+    /**
+     * Creates a BCrypt encoder.
+     *
+     * @param strength The log2 cost factor (4 to 31).
+     * @return A BCryptPasswordEncoder with the given strength.
+     */
+    public static PasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Creates a PBKDF2-HMAC-SHA256 encoder.
+     *
+     * @param iterations The iteration count.
+     * @return A Pbkdf2PasswordEncoder with the given iteration count.
+     */
+    public static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Creates an Argon2id encoder.
+     *
+     * @param memoryKb    The memory cost in KiB.
+     * @param iterations  The iteration count.
+     * @param parallelism The degree of parallelism.
+     * @return An Argon2PasswordEncoder with the given parameters.
+     */
+    public static PasswordEncoder argon2(int memoryKb, int iterations, int parallelism) {
+        return new Argon2PasswordEncoder(SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKb, iterations);
+    }
+}
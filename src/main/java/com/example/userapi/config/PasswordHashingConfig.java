@@ -0,0 +1,49 @@
+package com.example.userapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the dedicated password hashing pool.
+ * Keeps CPU-heavy hashing off the request threads and bounds how much of it can queue up.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    /** Bean name of the executor that runs password hashing work. */
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+    /**
+     * Creates the fixed-size executor used for password hashing.
+     * Tasks beyond the queue capacity are rejected immediately rather than waiting,
+     * which callers surface as 503 Service Unavailable.
+     *
+     * @param poolSize      Number of hashing threads; 0 or less sizes the pool to the available processors.
+     * @param queueCapacity Maximum number of hashing tasks allowed to wait for a thread.
+     * @param meterRegistry Registry to publish pool size, active and queued task gauges to.
+     * @return An ExecutorService dedicated to password hashing.
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(@Value("${userapi.hashing.pool-size:0}") int poolSize,
+                                                   @Value("${userapi.hashing.queue-capacity:64}") int queueCapacity,
+                                                   MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, PASSWORD_HASHING_EXECUTOR, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.userapi.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the reactive (WebFlux + R2DBC) variant of the user API.
+ * Active with the {@value #REACTIVE_PROFILE} profile, which also switches the application to a
+ * reactive web server. JPA stays in place for schema management and the bulk, import and
+ * existence-filter paths, so both drivers point at the same database.
+ */
+@Configuration
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveConfig implements DisposableBean {
+
+    /** Profile that serves /api/users from WebFlux and R2DBC. */
+    public static final String REACTIVE_PROFILE = "reactive";
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Serves the reactive application on Netty rather than the Tomcat reactive adapter,
+     * since both are on the classpath and Boot would otherwise pick Tomcat.
+     *
+     * @return The Netty server factory.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Creates the R2DBC client used by the reactive repository.
+     * The connection pool is deliberately not exposed as a ConnectionFactory bean: Boot backs the
+     * JDBC DataSource off as soon as one exists, which would take JPA down with it.
+     *
+     * @param url             The R2DBC connection URL.
+     * @param username        The database user.
+     * @param password        The database password.
+     * @param maxSize         The maximum number of pooled connections.
+     * @param maxAcquireTime  How long a query waits for a free connection before failing.
+     * @return A DatabaseClient backed by a connection pool.
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(@Value("${userapi.reactive.r2dbc.url}") String url,
+                                                 @Value("${userapi.reactive.r2dbc.username:}") String username,
+                                                 @Value("${userapi.reactive.r2dbc.password:}") String password,
+                                                 @Value("${userapi.reactive.r2dbc.pool.max-size:20}") int maxSize,
+                                                 @Value("${userapi.reactive.r2dbc.pool.max-acquire-time:2s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(Math.min(maxSize, 4))
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.userapi.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for the general-purpose application task executor.
+ * Spring Boot backs off from defining {@code applicationTaskExecutor} as soon as any
+ * {@link java.util.concurrent.Executor} bean exists, which the password hashing pool is.
+ * This declares it the way Boot would: a thread pool by default, or one virtual thread per
+ * task when {@code spring.threads.virtual.enabled} is set on Java 21+. Spring MVC runs
+ * streaming responses on it, and bulk imports run their write stage on it.
+ */
+@Configuration
+public class TaskExecutionConfig {
+
+    /** Profile that serves requests and blocking work on virtual threads. */
+    public static final String VIRTUAL_THREADS_PROFILE = "virtual-threads";
+
+    /**
+     * Creates the application task executor backed by virtual threads.
+     *
+     * @param builder Boot's builder, preconfigured for virtual threads and {@code spring.task.execution.*}.
+     * @return An executor that starts one virtual thread per task.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Creates the application task executor backed by a platform thread pool.
+     *
+     * @param builder Boot's builder, preconfigured from {@code spring.task.execution.*}.
+     * @return A thread pool executor.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Fails startup when the virtual threads profile is active on a JVM without virtual threads,
+     * rather than silently serving on platform threads.
+     *
+     * @param environment The application environment.
+     * @return A check run once the context is being initialized.
+     */
+    @Bean
+    @Profile(VIRTUAL_THREADS_PROFILE)
+    public InitializingBean virtualThreadsCheck(Environment environment) {
+        return () -> {
+            if (!Threading.VIRTUAL.isActive(environment)) {
+                throw new IllegalStateException("The " + VIRTUAL_THREADS_PROFILE
+                        + " profile needs Java 21 or newer and spring.threads.virtual.enabled=true, running on Java "
+                        + Runtime.version());
+            }
+        };
+    }
+}
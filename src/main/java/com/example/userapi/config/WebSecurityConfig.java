@@ -1,11 +1,14 @@
 package com.example.userapi.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.server.SecurityWebFilterChain;
 
 /**
  * Configuration class for web security settings.
@@ -14,22 +17,38 @@ import org.springframework.security.web.SecurityFilterChain;
 public class WebSecurityConfig {
     /**
      * Creates a PasswordEncoder bean for encoding passwords.
+     * The algorithm used for new hashes and its cost are selected through configuration;
+     * hashes produced by any supported algorithm, or at an older cost, keep verifying.
      *
-     * @return A BCryptPasswordEncoder instance for secure password hashing.
+     * @param encodingId        The algorithm for new hashes: bcrypt, pbkdf2 or argon2.
+     * @param bcryptStrength    The BCrypt log2 cost factor.
+     * @param pbkdf2Iterations  The PBKDF2 iteration count.
+     * @param argon2MemoryKb    The Argon2 memory cost in KiB.
+     * @param argon2Iterations  The Argon2 iteration count.
+     * @param argon2Parallelism The Argon2 degree of parallelism.
+     * @return A delegating PasswordEncoder for secure password hashing.
      * */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${userapi.password.encoder:bcrypt}") String encodingId,
+                                           @Value("${userapi.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${userapi.password.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+                                           @Value("${userapi.password.argon2.memory:16384}") int argon2MemoryKb,
+                                           @Value("${userapi.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${userapi.password.argon2.parallelism:1}") int argon2Parallelism) {
+        return PasswordEncoderFactory.delegating(encodingId, bcryptStrength, pbkdf2Iterations,
+                argon2MemoryKb, argon2Iterations, argon2Parallelism);
     }
 
     /**
      * Configures the security filter chain to allow unauthenticated access to all endpoints.
+     * Only created for servlet web applications, so the context can also start without a web server.
      *
      * @param http The HttpSecurity object to be configured.
      * @return A SecurityFilterChain with the specified security configurations.
      * @throws Exception If an error occurs during the security configuration.
      */
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
@@ -39,4 +58,21 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    /**
+     * Configures the reactive security filter chain with the same rules, for the reactive profile.
+     *
+     * @param http The ServerHttpSecurity object to be configured.
+     * @return A SecurityWebFilterChain allowing unauthenticated access to all endpoints.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(csrf -> csrf.disable())
+                .authorizeExchange(exchange -> exchange
+                        .anyExchange().permitAll()
+                )
+                .build();
+    }
+
 }
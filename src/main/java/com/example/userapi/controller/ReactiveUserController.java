@@ -0,0 +1,189 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.config.ReactiveConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPatchDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.service.ReactiveUserService;
+import com.example.userapi.service.UserService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive REST controller serving the same /api/users contract as {@link UserController},
+ * on WebFlux and R2DBC. Active with the {@value ReactiveConfig#REACTIVE_PROFILE} profile.
+ */
+@RestController
+@RequestMapping("/api/users")
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+@Slf4j
+public class ReactiveUserController {
+
+    @Autowired
+    ReactiveUserService userService;
+
+    /**
+     * Provides a welcome message for the User Management API.
+     *
+     * @return A string containing the welcome message.
+     */
+    @GetMapping("/")
+    public String home() {
+        return "Welcome to the User Management API!";
+    }
+
+    /**
+     * Retrieves one keyset page of users, ordered by id, with the next-page cursor in the
+     * {@value UserController#NEXT_CURSOR_HEADER} and Link headers.
+     *
+     * @param after   The id of the last user from the previous page; omit to start from the beginning.
+     * @param limit   The maximum number of users to return.
+     * @param request The current request, used to build the next-page link.
+     * @return Mono emitting a ResponseEntity containing the UserDTO objects on the requested page.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<UserDTO>>> getAllUsers(@RequestParam(required = false) Long after,
+                                                           @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+                                                           ServerHttpRequest request) {
+        log.info("GET /api/users called with after={} limit={}", after, limit);
+        return userService.getUsersPage(after, limit).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                String next = UriComponentsBuilder.fromUri(request.getURI())
+                        .replaceQueryParam("after", page.getNextCursor())
+                        .replaceQueryParam("limit", page.getUsers().size())
+                        .toUriString();
+                response.header(UserController.NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()))
+                        .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(page.getUsers());
+        });
+    }
+
+    /**
+     * Streams all users as newline-delimited JSON, one UserDTO per line, with backpressure
+     * from the client connection down to the database cursor.
+     *
+     * @return Flux of all users.
+     */
+    @GetMapping(value = "/stream", produces = UserController.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDTO> streamUsers() {
+        log.info("GET /api/users/stream called");
+        return userService.streamUsers();
+    }
+
+    /**
+     * Searches users by prefix or substring of username, email, first name or last name,
+     * with the same ranking and limits as {@link UserController#searchUsers}.
+     *
+     * @param q    The text to look for.
+     * @param page The zero-based page number.
+     * @param size The page size.
+     * @return Mono emitting the matching users on the page and the total hit count.
+     */
+    @GetMapping("/search")
+    public Mono<UserSearchPageDTO> searchUsers(
+            @RequestParam @NotBlank @Size(max = UserService.MAX_SEARCH_QUERY_LENGTH) String q,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(UserService.MAX_SEARCH_PAGE) int page,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_SEARCH_PAGE_SIZE) @Min(1) @Max(UserService.MAX_SEARCH_PAGE_SIZE) int size) {
+        log.info("GET /api/users/search called with q={} page={} size={}", q, page, size);
+        return userService.searchUsers(q, page, size);
+    }
+
+    /**
+     * Retrieves a specific user by their ID.
+     * The response carries the user's version as a strong ETag, and a matching If-None-Match answers 304
+     * without a body; unlike the servlet controller, the user is still read from the database to get there.
+     *
+     * @param id The unique identifier of the user to retrieve.
+     * @return Mono emitting a ResponseEntity containing the requested user and its ETag.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> getUserById(@PathVariable Long id) {
+        log.info("GET /api/users/{} called", id);
+        // WebFlux answers If-None-Match itself from the ETag of the returned entity
+        return userService.getUserById(id).map(user -> UserController.withETag(user).body(user));
+    }
+
+    /**
+     * Creates a new user in the system.
+     *
+     * @param userRequest The UserRequestDTO containing the details of the user to be created.
+     * @return Mono emitting a ResponseEntity containing the created UserDTO and its ETag.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<UserDTO>> createUser(@Valid @RequestBody UserRequestDTO userRequest) {
+        log.info("POST /api/users called");
+        return userService.createUser(userRequest).map(user -> UserController.withETag(user).body(user));
+    }
+
+    /**
+     * Updates an existing user in the system.
+     * With an If-Match header naming the ETag of the user, the update only applies if nobody
+     * has changed the user since; otherwise 412 is returned and nothing is written.
+     *
+     * @param id          The unique identifier of the user to be updated.
+     * @param userRequest The UserRequestDTO containing the updated details of the user.
+     * @param ifMatch     The If-Match header, if any.
+     * @return Mono emitting a ResponseEntity containing the updated UserDTO and its new ETag.
+     * @throws PreconditionFailedException If the If-Match header does not name a single version.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequestDTO userRequest,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws PreconditionFailedException {
+        log.info("PUT /api/users/{} called", id);
+        return userService.updateUser(id, userRequest, UserController.expectedVersion(ifMatch))
+                .map(user -> UserController.withETag(user).body(user));
+    }
+
+    /**
+     * Partially updates an existing user: only the fields present in the body change,
+     * and the password is only re-hashed when a new one is given.
+     * With an If-Match header naming the ETag of the user, the update only applies if nobody
+     * has changed the user since; otherwise 412 is returned and nothing is written.
+     *
+     * @param id      The unique identifier of the user to be updated.
+     * @param patch   The UserPatchDTO containing the fields to change.
+     * @param ifMatch The If-Match header, if any.
+     * @return Mono emitting a ResponseEntity containing the updated UserDTO and its new ETag.
+     * @throws PreconditionFailedException If the If-Match header does not name a single version.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> patchUser(@PathVariable Long id, @Valid @RequestBody UserPatchDTO patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws PreconditionFailedException {
+        log.info("PATCH /api/users/{} called", id);
+        return userService.patchUser(id, patch, UserController.expectedVersion(ifMatch))
+                .map(user -> UserController.withETag(user).body(user));
+    }
+
+    /**
+     * Deletes a user from the system based on the provided ID.
+     *
+     * @param id The unique identifier of the user to be deleted.
+     * @return Mono emitting an empty 200 response once the user is deleted.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        log.info("DELETE /api/users/{} called", id);
+        return userService.deleteUser(id).then(Mono.just(ResponseEntity.ok().<Void>build()));
+    }
+}
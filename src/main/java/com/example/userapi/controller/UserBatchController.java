@@ -0,0 +1,72 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.UserBatchUpdateDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.service.UserBatchService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for bulk user operations.
+ * Each endpoint answers 200 with one result per item; the per-item status tells
+ * which items succeeded and why the others failed.
+ */
+@RestController
+@RequestMapping("/api/users/batch")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class UserBatchController {
+
+    /** Maximum number of items accepted in a single batch request. */
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    @Autowired
+    UserBatchService userBatchService;
+
+    /**
+     * Creates many users.
+     *
+     * @param users The users to create.
+     * @return A ResponseEntity containing one result per user, in request order.
+     */
+    @PostMapping
+    public ResponseEntity<List<BatchItemResultDTO>> createUsers(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<UserRequestDTO> users) {
+        log.info("POST /api/users/batch called with {} users", users.size());
+        return ResponseEntity.ok(userBatchService.createUsers(users));
+    }
+
+    /**
+     * Updates many users.
+     *
+     * @param users The updates to apply, each carrying the id of the user to update.
+     * @return A ResponseEntity containing one result per update, in request order.
+     */
+    @PutMapping
+    public ResponseEntity<List<BatchItemResultDTO>> updateUsers(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<UserBatchUpdateDTO> users) {
+        log.info("PUT /api/users/batch called with {} users", users.size());
+        return ResponseEntity.ok(userBatchService.updateUsers(users));
+    }
+
+    /**
+     * Deletes many users.
+     *
+     * @param ids The ids of the users to delete.
+     * @return A ResponseEntity containing one result per id, in request order.
+     */
+    @DeleteMapping
+    public ResponseEntity<List<BatchItemResultDTO>> deleteUsers(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<Long> ids) {
+        log.info("DELETE /api/users/batch called with {} ids", ids.size());
+        return ResponseEntity.ok(userBatchService.deleteUsers(ids));
+    }
+}
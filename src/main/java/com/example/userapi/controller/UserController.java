@@ -1,28 +1,77 @@
 package com.example.userapi.controller;
 
+import com.example.userapi.dto.UserAvailabilityDTO;
 import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserFieldSet;
+import com.example.userapi.dto.UserLookupResultDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserPatchDTO;
 import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.exception.ResourceNotFoundException;
 import com.example.userapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * REST controller for managing user-related operations.
  */
 @RestController
 @RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class UserController {
 
+    /** Response header carrying the cursor for the next page of users. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Media type for newline-delimited JSON streams. */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /** Lets clients keep user representations, but only reuse them after revalidating the ETag. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /** A strong ETag of a single user: its version, then the requested fields unless all were requested. */
+    private static final Pattern USER_ETAG = Pattern.compile("\"(\\d+)(?:;[A-Za-z+]+)?\"");
+
     @Autowired
     UserService userService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     /**
      * Provides a welcome message for the User Management API.
      *
@@ -34,64 +83,219 @@ public class UserController {
     }
 
     /**
-     * Retrieves all users from the system.
+     * Retrieves one keyset page of users, ordered by id.
+     * When more users exist, the cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header and as a {@code rel="next"} Link header.
+     * The page carries a strong ETag derived from the ids and versions on it; a matching
+     * If-None-Match answers 304 without serializing the page.
      *
-     * @return A list of UserDTO objects representing all users in the system.
+     * @param after   The id of the last user from the previous page; omit to start from the beginning.
+     * @param limit   The maximum number of users to return.
+     * @param fields  The user properties to return, for example {@code username,email}; omit for all of them.
+     * @param request The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing the users on the requested page, or null once a 304 has been sent.
      */
     @GetMapping
-    public List<UserDTO> getAllUsers() {
-        log.info("GET /api/users called");
-        return userService.getAllUsers();
+    public ResponseEntity<List<Object>> getAllUsers(@RequestParam(required = false) Long after,
+                                                    @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+                                                    @RequestParam(required = false) UserFieldSet fields,
+                                                    WebRequest request) {
+        log.info("GET /api/users called with after={} limit={} fields={}", after, limit, fields);
+        UserFieldSet selected = fields != null ? fields : UserFieldSet.ALL;
+        UserPageDTO page = userService.getUsersPage(after, limit);
+
+        String etag = pageETag(page, selected);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .replaceQueryParam("limit", page.getUsers().size())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()))
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getUsers().stream().map(selected::apply).toList());
+    }
+
+    /**
+     * Retrieves many users by id in one request. Each requested id gets its own result, in request order,
+     * with the status a single {@code GET /api/users/{id}} would have answered: 200 with the user, or 404.
+     * Ids missing from the cache are loaded together, in as few queries as the batch loader allows.
+     *
+     * @param ids    The ids of the users to retrieve, for example {@code ids=1,2,3}.
+     * @param fields The user properties to return, for example {@code username,email}; omit for all of them.
+     * @return A ResponseEntity containing one result per requested id.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserLookupResultDTO>> getUsersByIds(
+            @RequestParam @NotEmpty @Size(max = UserService.MAX_LOOKUP_IDS) List<Long> ids,
+            @RequestParam(required = false) UserFieldSet fields) {
+        log.info("GET /api/users called with {} ids, fields={}", ids.size(), fields);
+        UserFieldSet selected = fields != null ? fields : UserFieldSet.ALL;
+        Map<Long, UserDTO> users = userService.getUsersByIds(ids.stream().filter(Objects::nonNull).toList());
+
+        List<UserLookupResultDTO> results = ids.stream().map(id -> {
+            if (id == null) {
+                return new UserLookupResultDTO(null, HttpStatus.BAD_REQUEST.value(), null, "Id is mandatory");
+            }
+            UserDTO user = users.get(id);
+            return user != null
+                    ? new UserLookupResultDTO(id, HttpStatus.OK.value(), selected.apply(user), null)
+                    : new UserLookupResultDTO(id, HttpStatus.NOT_FOUND.value(), null, "User not found with id " + id);
+        }).toList();
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Streams all users as newline-delimited JSON, one UserDTO per line.
+     * Rows are written as they are read from the database, so the response
+     * never holds the whole table in memory.
+     *
+     * @return A ResponseEntity wrapping the streaming NDJSON body.
+     */
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.info("GET /api/users/stream called");
+        StreamingResponseBody body = out -> userService.streamUsers(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Searches users by prefix or substring of username, email, first name or last name,
+     * ignoring case. Results are ranked: exact matches first, then prefix matches, then
+     * substring matches, with username weighted above email and names.
+     * Substring matching applies to queries of at least three characters.
+     *
+     * @param q    The text to look for.
+     * @param page The zero-based page number.
+     * @param size The page size.
+     * @return A ResponseEntity containing the matching users on the page and the total hit count.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<UserSearchPageDTO> searchUsers(
+            @RequestParam @NotBlank @Size(max = UserService.MAX_SEARCH_QUERY_LENGTH) String q,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(UserService.MAX_SEARCH_PAGE) int page,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_SEARCH_PAGE_SIZE) @Min(1) @Max(UserService.MAX_SEARCH_PAGE_SIZE) int size) {
+        log.info("GET /api/users/search called with q={} page={} size={}", q, page, size);
+        return ResponseEntity.ok(userService.searchUsers(q, page, size));
+    }
+
+    /**
+     * Tells a signup form whether a username and an email are still free, before it submits them.
+     * Values the existence filter rules out are answered without a query, and concurrent checks of the
+     * same value share one. Creating the user still re-checks both, so a free answer is not a reservation.
+     *
+     * @param username The username to check, if any.
+     * @param email    The email to check, if any.
+     * @return A ResponseEntity telling, for each value given, whether it is available.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<UserAvailabilityDTO> checkAvailability(
+            @RequestParam(required = false) @Size(max = 50) String username,
+            @RequestParam(required = false) @Email String email) {
+        log.info("GET /api/users/availability called");
+        UserAvailabilityDTO availability = new UserAvailabilityDTO(
+                username != null ? !userService.usernameExists(username) : null,
+                email != null ? !userService.emailExists(email) : null);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(availability);
     }
 
     /**
      * Retrieves a specific user by their ID.
+     * The response carries the user's version as a strong ETag; a matching If-None-Match answers 304
+     * straight from the user cache, without a query or a body.
      *
-     * @param id The unique identifier of the user to retrieve.
-     * @return A ResponseEntity containing the UserDTO of the requested user.
+     * @param id      The unique identifier of the user to retrieve.
+     * @param fields  The user properties to return, for example {@code username,email}; omit for all of them.
+     * @param request The current request, used to evaluate If-None-Match.
+     * @return A ResponseEntity containing the requested user, or null once a 304 has been sent.
      * @throws ResourceNotFoundException If no user is found with the given ID.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) throws ResourceNotFoundException {
-        log.info("GET /api/users/{} called", id);
+    public ResponseEntity<Object> getUserById(@PathVariable Long id,
+                                              @RequestParam(required = false) UserFieldSet fields,
+                                              WebRequest request) throws ResourceNotFoundException {
+        log.info("GET /api/users/{} called with fields={}", id, fields);
+        UserFieldSet selected = fields != null ? fields : UserFieldSet.ALL;
         UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+
+        String etag = userETag(user, selected);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(selected.apply(user));
     }
 
     /**
      * Creates a new user in the system.
      *
      * @param userRequest The UserRequestDTO containing the details of the user to be created.
-     * @return A ResponseEntity containing the created UserDTO if successful, or an error message if the username or email is already in use.
+     * @return A ResponseEntity containing the created UserDTO and its ETag.
+     * @throws DuplicateResourceException If the username or email is already in use.
      */
     @PostMapping
-    public ResponseEntity<?> createUser(@Valid @RequestBody UserRequestDTO userRequest) {
+    public ResponseEntity<UserDTO> createUser(@Valid @RequestBody UserRequestDTO userRequest) throws DuplicateResourceException {
         log.info("POST /api/users called");
-        if (userService.usernameExists(userRequest.getUsername())) {
-            log.warn("Username {} is already taken", userRequest.getUsername());
-            return ResponseEntity.badRequest().body("Username is already taken");
-        }
-        if (userService.emailExists(userRequest.getEmail())) {
-            log.warn("Email {} is already in use", userRequest.getEmail());
-            return ResponseEntity.badRequest().body("Email is already in use");
-        }
         UserDTO createdUser = userService.createUser(userRequest);
-        return ResponseEntity.ok(createdUser);
+        return withETag(createdUser).body(createdUser);
     }
 
     /**
      * Updates an existing user in the system.
+     * With an If-Match header naming the ETag of the user, the update only applies if nobody
+     * has changed the user since; otherwise 412 is returned and nothing is written.
      *
-     * @param id The unique identifier of the user to be updated.
+     * @param id          The unique identifier of the user to be updated.
      * @param userRequest The UserRequestDTO containing the updated details of the user.
-     * @return A ResponseEntity containing the updated UserDTO.
+     * @param ifMatch     The If-Match header, if any.
+     * @return A ResponseEntity containing the updated UserDTO and its new ETag.
      * @throws ResourceNotFoundException If no user is found with the given ID.
+     * @throws DuplicateResourceException If the new email is already in use.
+     * @throws PreconditionFailedException If the user no longer matches the If-Match header.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequestDTO userRequest) throws ResourceNotFoundException {
+    public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequestDTO userRequest,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws ResourceNotFoundException, DuplicateResourceException, PreconditionFailedException {
         log.info("PUT /api/users/{} called", id);
-        UserDTO updatedUser = userService.updateUser(id, userRequest);
-        return ResponseEntity.ok(updatedUser);
+        UserDTO updatedUser = userService.updateUser(id, userRequest, expectedVersion(ifMatch));
+        return withETag(updatedUser).body(updatedUser);
+    }
+
+    /**
+     * Partially updates an existing user: only the fields present in the body change,
+     * and the password is only re-hashed when a new one is given.
+     * With an If-Match header naming the ETag of the user, the update only applies if nobody
+     * has changed the user since; otherwise 412 is returned and nothing is written.
+     *
+     * @param id      The unique identifier of the user to be updated.
+     * @param patch   The UserPatchDTO containing the fields to change.
+     * @param ifMatch The If-Match header, if any.
+     * @return A ResponseEntity containing the updated UserDTO and its new ETag.
+     * @throws ResourceNotFoundException If no user is found with the given ID.
+     * @throws DuplicateResourceException If the new email is already in use.
+     * @throws PreconditionFailedException If the user no longer matches the If-Match header.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserDTO> patchUser(@PathVariable Long id, @Valid @RequestBody UserPatchDTO patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws ResourceNotFoundException, DuplicateResourceException, PreconditionFailedException {
+        log.info("PATCH /api/users/{} called", id);
+        UserDTO patchedUser = userService.patchUser(id, patch, expectedVersion(ifMatch));
+        return withETag(patchedUser).body(patchedUser);
     }
 
     /**
@@ -107,4 +311,62 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the strong ETag of a user representation.
+     *
+     * @return The ETag, or null if the version of the user is unknown.
+     */
+    static String userETag(UserDTO user, UserFieldSet fields) {
+        if (user.getVersion() == null) {
+            return null;
+        }
+        return "\"" + user.getVersion() + (fields.isAll() ? "" : ";" + fields.tag()) + "\"";
+    }
+
+    /**
+     * Builds the strong ETag of a page of users from the ids and versions on it, which determine its content.
+     *
+     * @return The ETag, or null if the version of a user on the page is unknown.
+     */
+    private static String pageETag(UserPageDTO page, UserFieldSet fields) {
+        StringBuilder key = new StringBuilder(fields.tag()).append(';').append(page.getNextCursor());
+        for (UserDTO user : page.getUsers()) {
+            if (user.getVersion() == null) {
+                return null;
+            }
+            key.append(';').append(user.getId()).append(':').append(user.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    static ResponseEntity.BodyBuilder withETag(UserDTO user) {
+        String etag = userETag(user, UserFieldSet.ALL);
+        return etag != null ? ResponseEntity.ok().eTag(etag) : ResponseEntity.ok();
+    }
+
+    /**
+     * Reads the user version named by an If-Match header. Weak ETags never match, as If-Match uses strong comparison.
+     *
+     * @param ifMatch The header value, or null.
+     * @return The version, or null if the header is absent or {@code *}.
+     * @throws PreconditionFailedException if the header does not name exactly one version.
+     */
+    static Long expectedVersion(String ifMatch) throws PreconditionFailedException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String etag : ifMatch.split(",")) {
+            Matcher matcher = USER_ETAG.matcher(etag.trim());
+            if (matcher.matches()) {
+                versions.add(Long.valueOf(matcher.group(1)));
+            }
+        }
+        if (versions.size() != 1) {
+            log.warn("If-Match {} does not name a single user version", ifMatch);
+            throw new PreconditionFailedException("If-Match does not name a current version of the user");
+        }
+        return versions.iterator().next();
+    }
+}
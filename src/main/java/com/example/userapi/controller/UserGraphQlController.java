@@ -0,0 +1,215 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.UserConnectionDTO;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPatchDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.service.UserService;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL controller for the user schema in {@code graphql/users.graphqls}, served at {@code /graphql}.
+ * Users requested by id, through any number of {@code user} and {@code usersByIds} fields in one request,
+ * are collected by a DataLoader and fetched with a single {@link UserService#getUsersByIds} call.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class UserGraphQlController {
+
+    private final UserService userService;
+
+    /**
+     * Creates the controller and registers the batch loader behind {@code user} and {@code usersByIds}.
+     *
+     * @param userService         Service used to read and write users.
+     * @param batchLoaderRegistry Registry of the DataLoaders created for each request.
+     */
+    public UserGraphQlController(UserService userService, BatchLoaderRegistry batchLoaderRegistry) {
+        this.userService = userService;
+        batchLoaderRegistry.forTypePair(Long.class, UserDTO.class)
+                .registerMappedBatchLoader((ids, environment) -> Mono.fromCallable(() -> userService.getUsersByIds(ids)));
+    }
+
+    /**
+     * Retrieves a user by id, batched with every other user requested by id in the same request.
+     *
+     * @param id     The id of the user.
+     * @param loader The request's user DataLoader.
+     * @return The user, or null if there is none.
+     */
+    @QueryMapping
+    public CompletableFuture<UserDTO> user(@Argument Long id, DataLoader<Long, UserDTO> loader) {
+        return loader.load(id);
+    }
+
+    /**
+     * Retrieves users by id, batched with every other user requested by id in the same request.
+     *
+     * @param ids    The ids of the users.
+     * @param loader The request's user DataLoader.
+     * @return The users in the order of the ids, with null for ids without a user.
+     */
+    @QueryMapping
+    public CompletableFuture<List<UserDTO>> usersByIds(@Argument @Size(max = UserService.MAX_LOOKUP_IDS) List<Long> ids,
+                                                       DataLoader<Long, UserDTO> loader) {
+        return loader.loadMany(ids);
+    }
+
+    /**
+     * Retrieves one keyset page of users ordered by id, as a connection.
+     *
+     * @param first The page size; clamped to [1, {@value UserService#MAX_PAGE_SIZE}].
+     * @param after The cursor of the last user on the previous page, or null to start from the beginning.
+     * @return The users on the page and the page info.
+     */
+    @QueryMapping
+    public UserConnectionDTO users(@Argument int first, @Argument Long after) {
+        log.info("GraphQL users called with first={} after={}", first, after);
+        return UserConnectionDTO.of(userService.getUsersPage(after, first), after);
+    }
+
+    /**
+     * Creates a new user.
+     *
+     * @param input The details of the user.
+     * @return The created user.
+     * @throws DuplicateResourceException If the username or email is already in use.
+     */
+    @MutationMapping
+    public UserDTO createUser(@Argument @Valid UserRequestDTO input) throws DuplicateResourceException {
+        log.info("GraphQL createUser called");
+        return userService.createUser(input);
+    }
+
+    /**
+     * Changes the supplied fields of a user.
+     *
+     * @param id      The id of the user.
+     * @param input   The fields to change; omitted fields keep their value.
+     * @param version The version the client last saw, or null to update unconditionally.
+     * @return The updated user.
+     * @throws ResourceNotFoundException   If no user is found with the given id.
+     * @throws DuplicateResourceException  If the new email is already used by another user.
+     * @throws PreconditionFailedException If the user no longer has the given version.
+     */
+    @MutationMapping
+    public UserDTO updateUser(@Argument Long id, @Argument @Valid UserPatchDTO input, @Argument Long version)
+            throws ResourceNotFoundException, DuplicateResourceException, PreconditionFailedException {
+        log.info("GraphQL updateUser called for id={}", id);
+        return userService.patchUser(id, input, version);
+    }
+
+    /**
+     * Deletes a user.
+     *
+     * @param id The id of the user.
+     * @return The id of the deleted user.
+     * @throws ResourceNotFoundException If no user is found with the given id.
+     */
+    @MutationMapping
+    public Long deleteUser(@Argument Long id) throws ResourceNotFoundException {
+        log.info("GraphQL deleteUser called for id={}", id);
+        userService.deleteUser(id);
+        return id;
+    }
+
+    /**
+     * Reports a missing user as a NOT_FOUND error on the field.
+     *
+     * @param ex          The ResourceNotFoundException that was thrown.
+     * @param environment The field being fetched.
+     * @return The GraphQL error.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleResourceNotFoundException(ResourceNotFoundException ex, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment).errorType(ErrorType.NOT_FOUND).message(ex.getMessage()).build();
+    }
+
+    /**
+     * Reports a username or email collision as a BAD_REQUEST error naming the field in its extensions.
+     *
+     * @param ex          The DuplicateResourceException that was thrown.
+     * @param environment The field being fetched.
+     * @return The GraphQL error.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleDuplicateResourceException(DuplicateResourceException ex, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment).errorType(ErrorType.BAD_REQUEST).message(ex.getMessage())
+                .extensions(Map.of("field", ex.getField()))
+                .build();
+    }
+
+    /**
+     * Reports an update against a stale version as a BAD_REQUEST error.
+     *
+     * @param ex          The PreconditionFailedException that was thrown.
+     * @param environment The field being fetched.
+     * @return The GraphQL error.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handlePreconditionFailedException(PreconditionFailedException ex, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment).errorType(ErrorType.BAD_REQUEST).message(ex.getMessage()).build();
+    }
+
+    /**
+     * Reports invalid arguments as a BAD_REQUEST error listing each invalid property and its message.
+     *
+     * @param ex          The ConstraintViolationException that was thrown.
+     * @param environment The field being fetched.
+     * @return The GraphQL error.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleConstraintViolationException(ConstraintViolationException ex, DataFetchingEnvironment environment) {
+        Map<String, String> errors = new TreeMap<>();
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            String path = violation.getPropertyPath().toString();
+            errors.put(path.substring(path.lastIndexOf('.') + 1), violation.getMessage());
+        }
+        log.warn("Validation failed: {}", errors);
+        return GraphqlErrorBuilder.newError(environment).errorType(ErrorType.BAD_REQUEST)
+                .message("Validation failed: " + errors)
+                .build();
+    }
+
+    /**
+     * Reports arguments that cannot be converted, such as a non-numeric id, as a BAD_REQUEST error.
+     *
+     * @param ex          The BindException that was thrown.
+     * @param environment The field being fetched.
+     * @return The GraphQL error.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleBindException(BindException ex, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment).errorType(ErrorType.BAD_REQUEST)
+                .message("Invalid value for " + ex.getFieldErrors().stream().map(FieldError::getField).toList())
+                .build();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.example.userapi.grpc.CreateUserRequest;
+import com.example.userapi.grpc.GetUserRequest;
+import com.example.userapi.grpc.GetUsersRequest;
+import com.example.userapi.grpc.GetUsersResponse;
+import com.example.userapi.grpc.ListUsersRequest;
+import com.example.userapi.grpc.User;
+import com.example.userapi.grpc.UserResult;
+import com.example.userapi.grpc.UsersGrpc;
+import com.example.userapi.service.UserService;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * gRPC implementation of the {@code userapi.v1.Users} service defined in {@code src/main/proto/users.proto},
+ * for internal clients. It calls the same UserService methods as UserController, so reads share the user
+ * cache, request coalescing and the multi-get batch loader; only the encoding and transport differ.
+ * Service exceptions are reported as the matching gRPC status.
+ */
+@Component
+@Slf4j
+public class UserGrpcService extends UsersGrpc.UsersImplBase {
+
+    /** Trailer naming the field that made a create fail with ALREADY_EXISTS. */
+    public static final Metadata.Key<String> FIELD_TRAILER = Metadata.Key.of("field", Metadata.ASCII_STRING_MARSHALLER);
+
+    /** Users read per query by ListUsers when the request does not set a page size. */
+    public static final int DEFAULT_STREAM_PAGE_SIZE = 100;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    Validator validator;
+
+    /**
+     * Retrieves a user by id.
+     *
+     * @param request          The id of the user.
+     * @param responseObserver Receives the user, or NOT_FOUND.
+     */
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<User> responseObserver) {
+        log.debug("gRPC GetUser called for id={}", request.getId());
+        try {
+            responseObserver.onNext(toProto(userService.getUserById(request.getId())));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * Retrieves many users by id, with one result per requested id in request order.
+     *
+     * @param request          The ids of the users; at most {@value UserService#MAX_LOOKUP_IDS}.
+     * @param responseObserver Receives the results; a result without a user means the id was not found.
+     */
+    @Override
+    public void getUsers(GetUsersRequest request, StreamObserver<GetUsersResponse> responseObserver) {
+        List<Long> ids = request.getIdsList();
+        log.debug("gRPC GetUsers called with {} ids", ids.size());
+        if (ids.size() > UserService.MAX_LOOKUP_IDS) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("At most " + UserService.MAX_LOOKUP_IDS + " ids can be requested at once")
+                    .asRuntimeException());
+            return;
+        }
+        try {
+            Map<Long, UserDTO> users = ids.isEmpty() ? Map.of() : userService.getUsersByIds(ids);
+            GetUsersResponse.Builder response = GetUsersResponse.newBuilder();
+            for (Long id : ids) {
+                UserResult.Builder result = response.addResultsBuilder().setId(id);
+                UserDTO user = users.get(id);
+                if (user != null) {
+                    result.setUser(toProto(user));
+                }
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * Streams users in ascending id order, reading one keyset page at a time.
+     * Users are only read and sent while the client keeps up, so a slow client holds neither a growing
+     * buffer nor a database cursor.
+     *
+     * @param request          Where to start, and how many users to read per query.
+     * @param responseObserver Receives the users.
+     */
+    @Override
+    public void listUsers(ListUsersRequest request, StreamObserver<User> responseObserver) {
+        log.debug("gRPC ListUsers called with afterId={} pageSize={}", request.getAfterId(), request.getPageSize());
+        ServerCallStreamObserver<User> call = (ServerCallStreamObserver<User>) responseObserver;
+        int pageSize = request.getPageSize() > 0 ? request.getPageSize() : DEFAULT_STREAM_PAGE_SIZE;
+        UserStreamer streamer = new UserStreamer(call, request.getAfterId(), pageSize);
+        call.setOnCancelHandler(streamer::cancel);
+        call.setOnReadyHandler(streamer);
+    }
+
+    /**
+     * Creates a new user.
+     *
+     * @param request          The details of the user.
+     * @param responseObserver Receives the created user, ALREADY_EXISTS with the conflicting field in the
+     *                         {@code field} trailer, or INVALID_ARGUMENT listing the invalid fields.
+     */
+    @Override
+    public void createUser(CreateUserRequest request, StreamObserver<User> responseObserver) {
+        log.debug("gRPC CreateUser called");
+        UserRequestDTO userRequest = new UserRequestDTO();
+        userRequest.setUsername(request.getUsername());
+        userRequest.setPassword(request.getPassword());
+        userRequest.setEmail(request.getEmail());
+        userRequest.setFirstName(emptyToNull(request.getFirstName()));
+        userRequest.setLastName(emptyToNull(request.getLastName()));
+
+        Set<ConstraintViolation<UserRequestDTO>> violations = validator.validate(userRequest);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new TreeMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            log.warn("Validation failed: {}", errors);
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Validation failed: " + errors).asRuntimeException());
+            return;
+        }
+        try {
+            responseObserver.onNext(toProto(userService.createUser(userRequest)));
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * Converts a UserDTO to its Protobuf message. Absent optional fields are left unset.
+     *
+     * @param user The user to convert.
+     * @return The Protobuf user.
+     */
+    public static User toProto(UserDTO user) {
+        User.Builder builder = User.newBuilder()
+                .setId(user.getId())
+                .setUsername(user.getUsername())
+                .setEmail(user.getEmail());
+        if (user.getFirstName() != null) {
+            builder.setFirstName(user.getFirstName());
+        }
+        if (user.getLastName() != null) {
+            builder.setLastName(user.getLastName());
+        }
+        if (user.getVersion() != null) {
+            builder.setVersion(user.getVersion());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Maps a service exception to the gRPC status a client should see.
+     */
+    private static StatusRuntimeException toStatusException(Exception e) {
+        if (e instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof DuplicateResourceException duplicate) {
+            Metadata trailers = new Metadata();
+            trailers.put(FIELD_TRAILER, duplicate.getField());
+            return Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException(trailers);
+        }
+        if (e instanceof ServiceUnavailableException) {
+            return Status.UNAVAILABLE.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("gRPC call failed", e);
+        return Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Sends users while the call is ready, fetching the next keyset page when the current one is used up.
+     * Runs as the call's on-ready handler, which gRPC never invokes concurrently for one call.
+     */
+    private final class UserStreamer implements Runnable {
+        private final ServerCallStreamObserver<User> call;
+        private final int pageSize;
+        private long after;
+        private Iterator<UserDTO> page = Collections.emptyIterator();
+        private boolean lastPage;
+        private volatile boolean done;
+
+        UserStreamer(ServerCallStreamObserver<User> call, long after, int pageSize) {
+            this.call = call;
+            this.after = after;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!done && call.isReady()) {
+                    if (page.hasNext()) {
+                        UserDTO user = page.next();
+                        after = user.getId();
+                        call.onNext(toProto(user));
+                    } else if (lastPage) {
+                        done = true;
+                        call.onCompleted();
+                    } else {
+                        UserPageDTO next = userService.getUsersPage(after, pageSize);
+                        page = next.getUsers().iterator();
+                        lastPage = next.getNextCursor() == null;
+                    }
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                call.onError(toStatusException(e));
+            }
+        }
+
+        void cancel() {
+            log.debug("gRPC ListUsers cancelled after id {}", after);
+            done = true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.ImportReportDTO;
+import com.example.userapi.service.UserDataFormat;
+import com.example.userapi.service.UserImportExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for streaming bulk import and export of users.
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class UserImportExportController {
+
+    /** Media type for CSV files. */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    @Autowired
+    UserImportExportService userImportExportService;
+
+    /**
+     * Imports users from an NDJSON or CSV request body, streaming it through the batch pipeline.
+     * CSV input needs a header row naming the columns: username, password, email, firstName, lastName.
+     *
+     * @param contentType The media type of the body, which selects the format.
+     * @param body        The request body.
+     * @return A ResponseEntity containing the import report.
+     * @throws IOException If the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {UserController.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<ImportReportDTO> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       InputStream body) throws IOException {
+        UserDataFormat format = MediaType.parseMediaType(TEXT_CSV_VALUE).isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? UserDataFormat.CSV : UserDataFormat.NDJSON;
+        log.info("POST /api/users/import called with format={}", format);
+        return ResponseEntity.ok(userImportExportService.importUsers(body, format));
+    }
+
+    /**
+     * Exports all users as an NDJSON or CSV attachment, streamed from a database cursor.
+     *
+     * @param format The format to export, {@code NDJSON} or {@code CSV}.
+     * @return A ResponseEntity wrapping the streaming body.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "NDJSON") UserDataFormat format) {
+        log.info("GET /api/users/export called with format={}", format);
+        StreamingResponseBody body = out -> userImportExportService.exportUsers(out, format);
+        String fileName = format == UserDataFormat.CSV ? "users.csv" : "users.ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
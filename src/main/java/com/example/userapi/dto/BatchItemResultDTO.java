@@ -0,0 +1,45 @@
+package com.example.userapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of one item of a batch request.
+ * Results are returned in the same order as the submitted items.
+ */
+@Setter
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+    /**
+     * The position of the item in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * The HTTP status code the item would have received as a single request.
+     */
+    private int status;
+
+    /**
+     * The id of the user the item refers to, when known.
+     */
+    private Long id;
+
+    /**
+     * The created or updated user, for successful create and update items.
+     */
+    private UserDTO user;
+
+    /**
+     * A description of why the item failed.
+     */
+    private String message;
+
+    /**
+     * The request field that caused the failure, if any.
+     */
+    private String field;
+
+}
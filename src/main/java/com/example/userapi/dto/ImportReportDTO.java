@@ -0,0 +1,45 @@
+package com.example.userapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing a bulk user import.
+ */
+@Setter
+@Getter
+public class ImportReportDTO {
+    /**
+     * The number of records read from the input.
+     */
+    private long processed;
+
+    /**
+     * The number of users created.
+     */
+    private long created;
+
+    /**
+     * The number of records that could not be imported.
+     */
+    private long failed;
+
+    /**
+     * The wall-clock duration of the import in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * The average number of records processed per second.
+     */
+    private double recordsPerSecond;
+
+    /**
+     * The failed records, by position in the input, capped to keep the report small.
+     */
+    private List<BatchItemResultDTO> failures = new ArrayList<>();
+
+}
@@ -0,0 +1,29 @@
+package com.example.userapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) telling whether a username and an email are still free for a new user.
+ * Only the values that were asked about are present.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserAvailabilityDTO {
+    /**
+     * True if no user has the username, or null if it was not checked.
+     */
+    private Boolean usernameAvailable;
+
+    /**
+     * True if no user has the email, or null if it was not checked.
+     */
+    private Boolean emailAvailable;
+
+}
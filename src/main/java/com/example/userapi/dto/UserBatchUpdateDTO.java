@@ -0,0 +1,21 @@
+package com.example.userapi.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for one item of a batch update request.
+ * Carries the id of the user to update alongside the same optional fields as a partial update:
+ * fields that are omitted or null, including the password, keep their stored value.
+ */
+@Setter
+@Getter
+public class UserBatchUpdateDTO extends UserPatchDTO {
+    /**
+     * The unique identifier of the user to update.
+     */
+    @NotNull(message = "Id is mandatory")
+    private Long id;
+
+}
@@ -0,0 +1,65 @@
+package com.example.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a page of users in the shape of a GraphQL connection.
+ * Each user is wrapped in an edge carrying its cursor, which is the user's id, as in {@link UserPageDTO}.
+ */
+@Getter
+@AllArgsConstructor
+public class UserConnectionDTO {
+    /**
+     * The users on this page, ordered by ascending id.
+     */
+    private List<Edge> edges;
+
+    /**
+     * Whether more pages exist, and the cursors bounding this one.
+     */
+    private PageInfo pageInfo;
+
+    /**
+     * Builds the connection for a keyset page.
+     *
+     * @param page  The page of users.
+     * @param after The cursor the page was requested with, or null for the first page.
+     * @return The page as a connection.
+     */
+    public static UserConnectionDTO of(UserPageDTO page, Long after) {
+        List<Edge> edges = page.getUsers().stream()
+                .map(user -> new Edge(String.valueOf(user.getId()), user))
+                .toList();
+        PageInfo pageInfo = new PageInfo(
+                page.getNextCursor() != null,
+                after != null,
+                edges.isEmpty() ? null : edges.get(0).getCursor(),
+                edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor());
+        return new UserConnectionDTO(edges, pageInfo);
+    }
+
+    /**
+     * One user on the page and its cursor.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Edge {
+        private String cursor;
+        private UserDTO node;
+    }
+
+    /**
+     * Pagination state of a connection.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PageInfo {
+        private boolean hasNextPage;
+        private boolean hasPreviousPage;
+        private String startCursor;
+        private String endCursor;
+    }
+}
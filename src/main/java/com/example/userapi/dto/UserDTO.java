@@ -1,14 +1,21 @@
 package com.example.userapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
  * Data Transfer Object (DTO) representing a user in the system.
  * This class is used to transfer user data between different layers of the application.
+ * The all-args constructor is also used as a JPQL constructor expression, so repository
+ * reads can select these columns directly without hydrating a User entity.
  */
 @Setter
 @Getter
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserDTO {
     /**
      * The unique identifier for the user.
@@ -35,4 +42,24 @@ public class UserDTO {
      */
     private String lastName;
 
+    /**
+     * The version of the user, or null when it was not read.
+     * Exposed to clients only as the ETag header, never in the body.
+     */
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Creates a UserDTO without a version.
+     *
+     * @param id        The unique identifier for the user.
+     * @param username  The username of the user.
+     * @param email     The email address of the user.
+     * @param firstName The first name of the user.
+     * @param lastName  The last name of the user.
+     */
+    public UserDTO(Long id, String username, String email, String firstName, String lastName) {
+        this(id, username, email, firstName, lastName, null);
+    }
+
 }
@@ -0,0 +1,103 @@
+package com.example.userapi.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The subset of UserDTO properties a client asked for through the {@code fields} parameter,
+ * such as {@code fields=username,email}.
+ * Bound from the request parameter through {@link #valueOf(String)}; unknown names are rejected.
+ */
+public final class UserFieldSet {
+
+    /** Every property of a UserDTO; the representation when no fields are requested. */
+    public static final UserFieldSet ALL = new UserFieldSet(EnumSet.allOf(Field.class));
+
+    private enum Field {
+        ID("id", UserDTO::getId),
+        USERNAME("username", UserDTO::getUsername),
+        EMAIL("email", UserDTO::getEmail),
+        FIRST_NAME("firstName", UserDTO::getFirstName),
+        LAST_NAME("lastName", UserDTO::getLastName);
+
+        private final String property;
+        private final Function<UserDTO, Object> getter;
+
+        Field(String property, Function<UserDTO, Object> getter) {
+            this.property = property;
+            this.getter = getter;
+        }
+    }
+
+    private final Set<Field> fields;
+
+    private UserFieldSet(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma-separated list of property names. Names are case-insensitive and may repeat.
+     *
+     * @param value The list, for example {@code username,email}; blank selects every property.
+     * @return The requested field set.
+     * @throws IllegalArgumentException if a name is not a UserDTO property.
+     */
+    public static UserFieldSet valueOf(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (String name : value.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            fields.add(Arrays.stream(Field.values())
+                    .filter(field -> field.property.equalsIgnoreCase(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown user field: " + property)));
+        }
+        return fields.isEmpty() ? ALL : new UserFieldSet(fields);
+    }
+
+    /**
+     * Tells whether every property is selected, in which case the UserDTO itself is the representation.
+     *
+     * @return True if no property is left out.
+     */
+    public boolean isAll() {
+        return fields.size() == Field.values().length;
+    }
+
+    /**
+     * Trims a user to the selected properties.
+     *
+     * @param user The user to trim.
+     * @return The user itself when every property is selected, otherwise a map of the selected properties.
+     */
+    public Object apply(UserDTO user) {
+        if (isAll()) {
+            return user;
+        }
+        Map<String, Object> trimmed = new LinkedHashMap<>(fields.size() * 2);
+        for (Field field : fields) {
+            trimmed.put(field.property, field.getter.apply(user));
+        }
+        return trimmed;
+    }
+
+    /**
+     * Returns the selected property names in a fixed order, so equal selections give equal tags.
+     * The tag contains no commas or quotes and can be embedded in an entity tag.
+     *
+     * @return The names joined by plus signs.
+     */
+    public String tag() {
+        return fields.stream().map(field -> field.property).collect(Collectors.joining("+"));
+    }
+}
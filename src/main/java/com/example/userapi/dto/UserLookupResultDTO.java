@@ -0,0 +1,39 @@
+package com.example.userapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of one id of a multi-get request.
+ * Results are returned in the same order as the requested ids.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserLookupResultDTO {
+    /**
+     * The requested id.
+     */
+    private Long id;
+
+    /**
+     * The HTTP status code the id would have received from {@code GET /api/users/{id}}.
+     */
+    private int status;
+
+    /**
+     * The user, trimmed to the requested fields, when found.
+     */
+    private Object user;
+
+    /**
+     * A description of why the user could not be returned.
+     */
+    private String message;
+
+}
@@ -0,0 +1,26 @@
+package com.example.userapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one keyset-paginated slice of users.
+ * Pages are ordered by user id; the cursor is the id of the last user on the page.
+ */
+@Setter
+@Getter
+public class UserPageDTO {
+    /**
+     * The users on this page, ordered by ascending id.
+     */
+    private List<UserDTO> users;
+
+    /**
+     * The cursor to pass as {@code after} to fetch the next page,
+     * or null if this is the last page.
+     */
+    private Long nextCursor;
+
+}
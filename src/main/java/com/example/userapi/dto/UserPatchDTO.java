@@ -0,0 +1,39 @@
+package com.example.userapi.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) for partial user updates.
+ * Every field is optional; fields that are omitted or null keep their stored value.
+ * The username cannot be changed.
+ */
+@Setter
+@Getter
+public class UserPatchDTO {
+    /**
+     * The new password for the user account, or null to keep the current one.
+     */
+    @Size(min = 6, message = "Password should be at least 6 characters")
+    private String password;
+
+    /**
+     * The new email address of the user, or null to keep the current one.
+     */
+    @Email(message = "Email should be valid")
+    @Size(min = 1, message = "Email must not be empty")
+    private String email;
+
+    /**
+     * The new first name of the user, or null to keep the current one.
+     */
+    private String firstName;
+
+    /**
+     * The new last name of the user, or null to keep the current one.
+     */
+    private String lastName;
+
+}
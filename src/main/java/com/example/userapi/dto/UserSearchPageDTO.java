@@ -0,0 +1,36 @@
+package com.example.userapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of user search results.
+ * Results are ranked by relevance: exact matches before prefix matches before substring
+ * matches, and username before email before first and last name; ties are ordered by id.
+ */
+@Setter
+@Getter
+public class UserSearchPageDTO {
+    /**
+     * The users on this page, best match first.
+     */
+    private List<UserDTO> users;
+
+    /**
+     * The total number of users matching the query.
+     */
+    private long totalHits;
+
+    /**
+     * The zero-based page number.
+     */
+    private int page;
+
+    /**
+     * The page size.
+     */
+    private int size;
+
+}
@@ -0,0 +1,24 @@
+package com.example.userapi.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a resource cannot be stored because a uniquely constrained field is already in use.
+ */
+@Getter
+public class DuplicateResourceException extends Exception {
+    /** The name of the field whose value is already in use. */
+    private final String field;
+
+    /**
+     * Constructs a new DuplicateResourceException for the given field.
+     *
+     * @param field   the name of the conflicting field
+     * @param message the detail message (which is saved for later retrieval
+     *                by the {@link #getMessage()} method)
+     */
+    public DuplicateResourceException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userapi.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
  */
 @Setter
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
     /** The HTTP status code of the error. */
     private int status;
@@ -19,6 +21,9 @@ public class ErrorResponse {
     /** A descriptive message providing details about the error. */
     private String message;
 
+    /** The request field the error relates to, if any. */
+    private String field;
+
     /** The timestamp when the error occurred. */
     private final LocalDateTime timestamp;
 
@@ -33,4 +38,16 @@ public class ErrorResponse {
         this.message = message;
         this.timestamp = LocalDateTime.now();
     }
+
+    /**
+     * Constructs a new ErrorResponse for an error caused by a specific request field.
+     *
+     * @param status  the HTTP status code of the error
+     * @param message a descriptive message providing details about the error
+     * @param field   the name of the request field that caused the error
+     */
+    public ErrorResponse(int status, String message, String field) {
+        this(status, message);
+        this.field = field;
+    }
 }
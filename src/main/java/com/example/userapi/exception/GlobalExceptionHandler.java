@@ -1,6 +1,9 @@
 package com.example.userapi.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,6 +13,8 @@ import org.springframework.web.context.request.WebRequest;
 // For validation errors
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +23,7 @@ import java.util.Map;
  * This class provides centralized exception handling across all @RequestMapping methods.
  */
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 public class GlobalExceptionHandler {
 
@@ -43,6 +49,73 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles DuplicateResourceException.
+     * This method is called when a create or update collides with a unique username or email.
+     *
+     * @param ex      The DuplicateResourceException that was thrown.
+     * @param request The current request.
+     * @return ResponseEntity containing an ErrorResponse object naming the conflicting field and HTTP status CONFLICT.
+     */
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateResourceException(
+            DuplicateResourceException ex, WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                ex.getField()
+        );
+
+        log.warn("Duplicate resource: {}", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles PreconditionFailedException.
+     * This method is called when an If-Match header names a version of the user that is no longer current.
+     *
+     * @param ex      The PreconditionFailedException that was thrown.
+     * @param request The current request.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status PRECONDITION_FAILED.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                ex.getMessage()
+        );
+
+        log.warn("Precondition failed: {}", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException.
+     * This method is called when an unconditional update loses a race against a concurrent update of the same user.
+     *
+     * @param ex      The OptimisticLockingFailureException that was thrown.
+     * @param request The current request.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status CONFLICT.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "The resource was modified concurrently, retry the request"
+        );
+
+        log.warn("Concurrent modification: {}", ex.getMessage());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles MethodArgumentNotValidException.
      * This method is called when there are validation errors in the request.
@@ -71,6 +144,79 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles HandlerMethodValidationException.
+     * This method is called when constraints on controller method parameters, such as batch size limits, are violated.
+     *
+     * @param ex The HandlerMethodValidationException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object with validation errors and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationExceptions(
+            HandlerMethodValidationException ex) {
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getAllValidationResults().forEach((result) -> {
+            String parameterName = result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach((error) -> errors.put(parameterName, error.getDefaultMessage()));
+        });
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation failed: " + errors.toString()
+        );
+
+        log.warn("Validation failed: {}", errors);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles MethodArgumentTypeMismatchException.
+     * This method is called when a path variable or request parameter cannot be converted, such as an unknown export format.
+     *
+     * @param ex The MethodArgumentTypeMismatchException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object naming the parameter and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(
+            MethodArgumentTypeMismatchException ex) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Invalid value '" + ex.getValue() + "' for parameter " + ex.getName(),
+                ex.getName()
+        );
+
+        log.warn("Invalid value for parameter {}: {}", ex.getName(), ex.getValue());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ServiceUnavailableException.
+     * This method is called when a bounded resource, such as the password hashing pool, is saturated.
+     *
+     * @param ex      The ServiceUnavailableException that was thrown.
+     * @param request The current request.
+     * @return ResponseEntity containing an ErrorResponse object, a Retry-After header and HTTP status SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage()
+        );
+
+        log.warn("Service unavailable: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     /**
      * Handles all other exceptions not specifically handled by other exception handlers.
      *
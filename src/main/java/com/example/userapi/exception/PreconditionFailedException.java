@@ -0,0 +1,16 @@
+package com.example.userapi.exception;
+
+/**
+ * Exception thrown when a conditional request names a version of a resource that is no longer current.
+ */
+public class PreconditionFailedException extends Exception {
+    /**
+     * Constructs a new PreconditionFailedException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval
+     *                by the {@link #getMessage()} method)
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
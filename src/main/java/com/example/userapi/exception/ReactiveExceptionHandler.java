@@ -0,0 +1,132 @@
+package com.example.userapi.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exception handler for the reactive web stack.
+ * Produces the same ErrorResponse bodies and status codes as {@link GlobalExceptionHandler},
+ * whose servlet-specific handler signatures WebFlux cannot call.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    /**
+     * Handles ResourceNotFoundException.
+     *
+     * @param ex The ResourceNotFoundException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status NOT_FOUND.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        log.warn("Resource not found: {}", ex.getMessage());
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles DuplicateResourceException.
+     *
+     * @param ex The DuplicateResourceException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object naming the conflicting field and HTTP status CONFLICT.
+     */
+    @ExceptionHandler(DuplicateResourceException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateResourceException(DuplicateResourceException ex) {
+        log.warn("Duplicate resource: {}", ex.getMessage());
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage(), ex.getField()), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles PreconditionFailedException.
+     *
+     * @param ex The PreconditionFailedException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status PRECONDITION_FAILED.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.PRECONDITION_FAILED.value(), ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles WebExchangeBindException, raised when a request body fails validation.
+     *
+     * @param ex The WebExchangeBindException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object with validation errors and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        log.warn("Validation failed: {}", errors);
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Validation failed: " + errors), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles HandlerMethodValidationException, raised when constraints on request parameters are violated.
+     *
+     * @param ex The HandlerMethodValidationException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object with validation errors and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleMethodValidationExceptions(HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getAllValidationResults().forEach((result) -> result.getResolvableErrors().forEach((error) ->
+                errors.put(result.getMethodParameter().getParameterName(), error.getDefaultMessage())));
+        log.warn("Validation failed: {}", errors);
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Validation failed: " + errors), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ServerWebInputException, raised for unreadable bodies and unconvertible parameters.
+     *
+     * @param ex The ServerWebInputException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status BAD_REQUEST.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInputException(ServerWebInputException ex) {
+        log.warn("Invalid request: {}", ex.getReason());
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getReason()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ServiceUnavailableException, raised when the password hashing pool is saturated.
+     *
+     * @param ex The ServiceUnavailableException that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object, a Retry-After header and HTTP status SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
+    /**
+     * Handles all other exceptions not specifically handled by other exception handlers.
+     *
+     * @param ex The exception that was thrown.
+     * @return ResponseEntity containing an ErrorResponse object and HTTP status INTERNAL_SERVER_ERROR.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleAllExceptions(Exception ex) {
+        log.error("An unexpected error occurred", ex);
+        return new ResponseEntity<>(new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "An unexpected error occurred"),
+                HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.userapi.exception;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request should be retried later.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    /**
+     * Constructs a new ServiceUnavailableException with the specified detail message.
+     *
+     * @param message the detail message (which is saved for later retrieval
+     *                by the {@link #getMessage()} method)
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Async appender that, once its queue is nearly full, drops DEBUG and TRACE events only.
+ * Logback's AsyncAppender also drops INFO at that point; here INFO and above are kept and
+ * the caller waits for a free slot, so operational messages are never lost, while a burst
+ * of debug output cannot slow requests down.
+ */
+public class DebugDiscardingAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.DEBUG_INT;
+    }
+}
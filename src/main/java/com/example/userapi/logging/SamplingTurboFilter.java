@@ -0,0 +1,67 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that lets through only a random sample of the events from one logger
+ * hierarchy, such as {@code org.hibernate.SQL}. Turbo filters run before a logging event is
+ * created, so a rejected statement costs a random number and nothing else: no event, no
+ * message formatting and no queue slot in the async appender.
+ * Level checks such as {@code isDebugEnabled()} are not sampled, so the logger's level still
+ * decides whether the statement is produced at all.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerName;
+    private double sampleRate = 1.0;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || !inHierarchy(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < sampleRate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Matches the logger itself and its children, but not siblings that merely share the prefix,
+     * such as {@code org.hibernate.SQL_SLOW} for {@code org.hibernate.SQL}.
+     */
+    private boolean inHierarchy(String name) {
+        return name.startsWith(loggerName)
+                && (name.length() == loggerName.length() || name.charAt(loggerName.length()) == '.');
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null) {
+            addError("No loggerName set for the sampling filter " + getName());
+            return;
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            addError("sampleRate must be between 0 and 1 but was " + sampleRate);
+            return;
+        }
+        super.start();
+    }
+
+    /**
+     * @param loggerName The logger whose events, including those of its child loggers, are sampled.
+     */
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    /**
+     * @param sampleRate The fraction of events to keep, between 0 and 1.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
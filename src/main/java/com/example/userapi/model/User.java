@@ -5,24 +5,41 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 /**
  * Entity class representing the User table in the database.
  * Includes validation constraints for data integrity.
+ * The unique constraints are named so that violations can be mapped back to the conflicting field.
+ * Soft-deleted users are filtered out of every entity load and JPQL query; only native queries see them.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+}, indexes = @Index(name = "idx_users_deleted_at", columnList = "deleted_at"))
+@SQLRestriction("deleted_at is null")
 @Getter
 @Setter
 @NoArgsConstructor
 public class User {
 
+    /** Name of the unique constraint on the username column. */
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+
+    /** Name of the unique constraint on the email column. */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     /**
      * The unique identifier for the user.
-     * Auto-generated by the database.
+     * Drawn from a pooled database sequence, so ids are known before the insert
+     * and Hibernate can group inserts into JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE) // Exclude id from having a setter
     private Long id;
 
@@ -32,7 +49,6 @@ public class User {
      */
     @NotBlank(message = "Username is mandatory")
     @Size(max = 50)
-    @Column(unique = true)
     private String username;
 
     /**
@@ -49,7 +65,6 @@ public class User {
      */
     @NotBlank(message = "Email is mandatory")
     @Email(message = "Email should be valid")
-    @Column(unique = true)
     private String email;
 
     /**
@@ -61,4 +76,19 @@ public class User {
      * The last name of the user.
      */
     private String lastName;
+
+    /**
+     * The version of the user, incremented by every update.
+     * Serves as the entity tag of the user resource and guards updates against lost writes.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    /**
+     * When the user was soft-deleted, or null for a live user.
+     * Soft-deleted users keep their username and email reserved until they are purged.
+     */
+    @Setter(AccessLevel.NONE)
+    private Instant deletedAt;
 }
\ No newline at end of file
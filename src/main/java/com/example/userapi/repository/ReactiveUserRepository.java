@@ -0,0 +1,243 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.config.ReactiveConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.model.User;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking access to the users table over R2DBC, mirroring the queries of {@link UserRepository}.
+ * Reads go straight into UserDTOs; only an update that sets a new password loads the stored hash.
+ * Like the JPA entity, reads and updates skip soft-deleted users, while the availability check
+ * still sees them because their usernames and emails stay reserved until they are purged.
+ */
+@Repository
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+public class ReactiveUserRepository {
+
+    private static final String DTO_COLUMNS = "id, username, email, first_name, last_name, version";
+
+    private final DatabaseClient databaseClient;
+    private final String nextIdSql;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        // Each id is taken straight from the sequence that Hibernate's pooled optimizer also draws from.
+        // Hibernate only hands out ids just below the values it fetched itself, so the two never collide.
+        this.nextIdSql = "PostgreSQL".equals(databaseClient.getConnectionFactory().getMetadata().getName())
+                ? "select nextval('users_seq')"
+                : "select next value for users_seq";
+    }
+
+    /**
+     * Finds a user by id, reading only the columns exposed through the API.
+     *
+     * @param id The ID of the user.
+     * @return Mono emitting the UserDTO, or empty if no user has the id.
+     */
+    public Mono<UserDTO> findUserDTOById(Long id) {
+        return databaseClient.sql("select " + DTO_COLUMNS + " from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toDTO)
+                .one();
+    }
+
+    /**
+     * Reads one keyset page of users.
+     *
+     * @param after The id after which the page starts.
+     * @param limit The maximum number of users to return.
+     * @return Flux of UserDTOs with ids greater than {@code after}, in id order.
+     */
+    public Flux<UserDTO> findUserDTOsByIdGreaterThan(Long after, int limit) {
+        return databaseClient.sql("select " + DTO_COLUMNS + " from users where id > :after and deleted_at is null order by id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveUserRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Streams all users in id order, fetching rows from the cursor as the subscriber requests them.
+     *
+     * @return Flux of all UserDTOs.
+     */
+    public Flux<UserDTO> streamUserDTOsOrderedById() {
+        return databaseClient.sql("select " + DTO_COLUMNS + " from users where deleted_at is null order by id")
+                .filter(statement -> statement.fetchSize(500))
+                .map(ReactiveUserRepository::toDTO)
+                .all();
+    }
+
+    /**
+     * Finds the users holding the given username or email in a single round trip.
+     *
+     * @param username The username to look for.
+     * @param email    The email to look for.
+     * @return Flux of the usernames of the conflicting users; at most two.
+     */
+    public Flux<String> findUsernamesByUsernameOrEmail(String username, String email) {
+        return databaseClient.sql("select username from users where username = :username or email = :email")
+                .bind("username", username)
+                .bind("email", email)
+                .map(row -> row.get("username", String.class))
+                .all();
+    }
+
+    /**
+     * Reads the stored password hash of a user.
+     *
+     * @param id The ID of the user.
+     * @return Mono emitting the hash, or empty if no user has the id.
+     */
+    public Mono<String> findPasswordById(Long id) {
+        return databaseClient.sql("select password from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .map(row -> row.get("password", String.class))
+                .one();
+    }
+
+    /**
+     * Inserts a user with an id drawn from the users sequence.
+     *
+     * @param user The user to insert; its id is ignored.
+     * @return Mono emitting the id of the new user.
+     */
+    public Mono<Long> insert(User user) {
+        return databaseClient.sql(nextIdSql)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("insert into users (id, username, password, email, first_name, last_name, version) "
+                                + "values (:id, :username, :password, :email, :firstName, :lastName, 0)")
+                        .bind("id", id)
+                        .bind("username", user.getUsername())
+                        .bind("password", user.getPassword())
+                        .bind("email", user.getEmail())
+                        .bind("firstName", nullable(user.getFirstName()))
+                        .bind("lastName", nullable(user.getLastName()))
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(id));
+    }
+
+    /**
+     * Tells whether a user exists and is not soft-deleted.
+     *
+     * @param id The ID of the user.
+     * @return Mono emitting true if the user exists.
+     */
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select 1 from users where id = :id and deleted_at is null")
+                .bind("id", id)
+                .fetch()
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * Updates the mutable fields of a user and increments its version.
+     *
+     * @param id        The ID of the user.
+     * @param version   The version the user must still have, or null to update whatever its version.
+     * @param email     The new email.
+     * @param firstName The new first name.
+     * @param lastName  The new last name.
+     * @param password  The new password hash, or null to keep the stored one.
+     * @return The number of rows updated: 1, or 0 if the user does not exist or is at another version.
+     */
+    public Mono<Long> update(Long id, Long version, String email, String firstName, String lastName, String password) {
+        return withVersion(databaseClient.sql("update users set email = :email, first_name = :firstName, last_name = :lastName, "
+                        + "password = coalesce(:password, password), version = version + 1 where id = :id and deleted_at is null"
+                        + versionCondition(version)), version)
+                .bind("id", id)
+                .bind("email", email)
+                .bind("password", nullable(password))
+                .bind("firstName", nullable(firstName))
+                .bind("lastName", nullable(lastName))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Applies a partial update in a single statement and increments the version.
+     * Null arguments keep the stored value.
+     *
+     * @param id        The ID of the user.
+     * @param version   The version the user must still have, or null to update whatever its version.
+     * @param email     The new email, or null.
+     * @param firstName The new first name, or null.
+     * @param lastName  The new last name, or null.
+     * @param password  The new password hash, or null.
+     * @return The number of rows updated: 1, or 0 if the user does not exist or is at another version.
+     */
+    public Mono<Long> patch(Long id, Long version, String email, String firstName, String lastName, String password) {
+        return withVersion(databaseClient.sql("update users set email = coalesce(:email, email), "
+                        + "first_name = coalesce(:firstName, first_name), last_name = coalesce(:lastName, last_name), "
+                        + "password = coalesce(:password, password), version = version + 1 where id = :id and deleted_at is null"
+                        + versionCondition(version)), version)
+                .bind("id", id)
+                .bind("email", nullable(email))
+                .bind("password", nullable(password))
+                .bind("firstName", nullable(firstName))
+                .bind("lastName", nullable(lastName))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Deletes a user in a single statement.
+     *
+     * @param id The ID of the user.
+     * @return The number of rows deleted: 1, or 0 if the user does not exist.
+     */
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from users where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Soft-deletes a user in a single statement by stamping its deletion time.
+     *
+     * @param id        The ID of the user.
+     * @param deletedAt The deletion time.
+     * @return The number of rows updated: 1, or 0 if the user does not exist or is already deleted.
+     */
+    public Mono<Long> softDeleteById(Long id, Instant deletedAt) {
+        return databaseClient.sql("update users set deleted_at = :deletedAt, version = version + 1 "
+                        + "where id = :id and deleted_at is null")
+                .bind("id", id)
+                .bind("deletedAt", deletedAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String versionCondition(Long version) {
+        return version != null ? " and version = :version" : "";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec withVersion(DatabaseClient.GenericExecuteSpec spec, Long version) {
+        return version != null ? spec.bind("version", version) : spec;
+    }
+
+    /** A VARCHAR parameter that may be null; a bare null cannot be bound because its type is unknown. */
+    private static Parameter nullable(String value) {
+        return Parameters.in(R2dbcType.VARCHAR, value);
+    }
+
+    private static UserDTO toDTO(Readable row) {
+        return new UserDTO(row.get("id", Long.class), row.get("username", String.class), row.get("email", String.class),
+                row.get("first_name", String.class), row.get("last_name", String.class), row.get("version", Long.class));
+    }
+}
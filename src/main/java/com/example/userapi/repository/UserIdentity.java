@@ -0,0 +1,16 @@
+package com.example.userapi.repository;
+
+/**
+ * Projection of the uniquely constrained columns of a user.
+ */
+public interface UserIdentity {
+    /**
+     * @return The username of the user.
+     */
+    String getUsername();
+
+    /**
+     * @return The email address of the user.
+     */
+    String getEmail();
+}
@@ -1,10 +1,22 @@
 package com.example.userapi.repository;
 
+import com.example.userapi.dto.UserDTO;
 import com.example.userapi.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for performing database operations on the User entity.
@@ -20,6 +32,132 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Finds the users holding the given username or email, selecting only those two columns.
+     * Used to check both unique fields in a single round trip; returns at most two rows.
+     *
+     * @param username The username to look for.
+     * @param email    The email to look for.
+     * @return The identities of the users that already use the username or the email.
+     */
+    List<UserIdentity> findByUsernameOrEmail(String username, String email);
+
+    /**
+     * Finds the users holding any of the given usernames or emails, selecting only those two columns.
+     * Used to pre-check a whole batch of new users in a single round trip.
+     *
+     * @param usernames The usernames to look for.
+     * @param emails    The emails to look for.
+     * @return The identities of the users that already use one of the usernames or emails.
+     */
+    List<UserIdentity> findByUsernameInOrEmailIn(Collection<String> usernames, Collection<String> emails);
+
+    /**
+     * Returns which of the given ids belong to existing users.
+     *
+     * @param ids The ids to check.
+     * @return The subset of ids that exist.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Applies a partial update in a single statement, provided the user is still at the expected version.
+     * Null arguments keep the stored value. The version is incremented.
+     *
+     * @param id        The id of the user to update.
+     * @param version   The version the user must have.
+     * @param email     The new email, or null.
+     * @param firstName The new first name, or null.
+     * @param lastName  The new last name, or null.
+     * @param password  The new password hash, or null.
+     * @return The number of users updated: 1, or 0 if the user does not exist or is at another version.
+     */
+    @Modifying
+    @Query("update User u set u.email = coalesce(:email, u.email), u.firstName = coalesce(:firstName, u.firstName), "
+            + "u.lastName = coalesce(:lastName, u.lastName), u.password = coalesce(:password, u.password), "
+            + "u.version = u.version + 1 where u.id = :id and u.version = :version and u.deletedAt is null")
+    int patchIfVersion(Long id, Long version, String email, String firstName, String lastName, String password);
+
+    /**
+     * Applies a partial update in a single statement, whatever the current version of the user.
+     * Null arguments keep the stored value. The version is incremented.
+     *
+     * @param id        The id of the user to update.
+     * @param email     The new email, or null.
+     * @param firstName The new first name, or null.
+     * @param lastName  The new last name, or null.
+     * @param password  The new password hash, or null.
+     * @return The number of users updated: 1, or 0 if the user does not exist.
+     */
+    @Modifying
+    @Query("update User u set u.email = coalesce(:email, u.email), u.firstName = coalesce(:firstName, u.firstName), "
+            + "u.lastName = coalesce(:lastName, u.lastName), u.password = coalesce(:password, u.password), "
+            + "u.version = u.version + 1 where u.id = :id and u.deletedAt is null")
+    int patch(Long id, String email, String firstName, String lastName, String password);
+
+    /**
+     * Deletes a user in a single statement, without loading it first.
+     *
+     * @param id The id of the user to delete.
+     * @return The number of users deleted: 1, or 0 if the user does not exist.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(Long id);
+
+    /**
+     * Soft-deletes a user in a single statement by stamping its deletion time.
+     *
+     * @param id        The id of the user to delete.
+     * @param deletedAt The deletion time.
+     * @return The number of users deleted: 1, or 0 if the user does not exist or is already deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.deletedAt = :deletedAt, u.version = u.version + 1 where u.id = :id and u.deletedAt is null")
+    int softDeleteById(Long id, Instant deletedAt);
+
+    /**
+     * Soft-deletes many users in a single statement.
+     *
+     * @param ids       The ids of the users to delete.
+     * @param deletedAt The deletion time.
+     * @return The number of users deleted.
+     */
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt, u.version = u.version + 1 where u.id in :ids and u.deletedAt is null")
+    int softDeleteAllById(Collection<Long> ids, Instant deletedAt);
+
+    /**
+     * Permanently removes up to {@code limit} users that were soft-deleted before the cutoff.
+     * Native, because soft-deleted users are invisible to JPQL.
+     *
+     * @param cutoff Users deleted before this time are removed.
+     * @param limit  The maximum number of users to remove.
+     * @return The number of users removed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "delete from users where id in "
+            + "(select id from users where deleted_at < :cutoff order by id limit :limit)", nativeQuery = true)
+    int purgeDeletedBefore(Instant cutoff, int limit);
+
+    /**
+     * Streams the username and email of every user using a forward-only database cursor.
+     * Native, so soft-deleted users, whose username and email stay reserved until purged, are included.
+     * Must be consumed inside a transaction and closed after use.
+     *
+     * @return A Stream of the identities of all users, fetched from the database in chunks.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "select username, email from users", nativeQuery = true)
+    Stream<UserIdentity> streamAllIdentities();
+
     /**
      * Checks if a user with the given username exists.
      *
@@ -35,4 +173,61 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return True if a user with the email exists, false otherwise.
      */
     Boolean existsByEmail(String email);
+
+    /**
+     * Fetches a single user as a UserDTO projection.
+     * Only the DTO columns are selected; no managed entity or dirty-checking snapshot is created.
+     *
+     * @param id The id of the user to fetch.
+     * @return Optional containing the UserDTO if found, or empty if not.
+     */
+    @Query("select new com.example.userapi.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, u.version) "
+            + "from User u where u.id = :id")
+    Optional<UserDTO> findUserDTOById(Long id);
+
+    /**
+     * Fetches the users with the given ids as UserDTO projections, in one query.
+     * Ids without a user are left out of the result.
+     *
+     * @param ids The ids of the users to fetch.
+     * @return The users found, in no particular order.
+     */
+    @Query("select new com.example.userapi.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, u.version) "
+            + "from User u where u.id in :ids")
+    List<UserDTO> findUserDTOsByIdIn(Collection<Long> ids);
+
+    /**
+     * Fetches the next keyset page of users as UserDTO projections, ordered by id.
+     *
+     * @param id    The id after which the page starts (exclusive).
+     * @param limit The maximum number of users to return.
+     * @return The users with an id greater than the given one, in ascending id order.
+     */
+    @Query("select new com.example.userapi.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, u.version) "
+            + "from User u where u.id > :id order by u.id")
+    List<UserDTO> findUserDTOsByIdGreaterThan(Long id, Limit limit);
+
+    /**
+     * Fetches the next keyset page of users as managed entities, ordered by id.
+     * The entity counterpart of {@link #findUserDTOsByIdGreaterThan}, for when the full entity is needed.
+     *
+     * @param id    The id after which the page starts (exclusive).
+     * @param limit The maximum number of users to return.
+     * @return The users with an id greater than the given one, in ascending id order.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Streams every user as a UserDTO projection in ascending id order using a forward-only database cursor.
+     * Must be consumed inside a transaction and closed after use.
+     *
+     * @return A Stream of all users, fetched from the database in chunks.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.userapi.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, u.version) "
+            + "from User u order by u.id")
+    Stream<UserDTO> streamUserDTOsOrderedById();
 }
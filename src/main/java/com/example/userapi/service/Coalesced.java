@@ -0,0 +1,20 @@
+package com.example.userapi.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method whose concurrent calls with equal arguments may share one invocation.
+ * Callers that arrive while a call is in flight receive its result or exception instead of running the
+ * method again. Applied by {@link CoalescingAspect} outside the caching interceptor, so a burst of misses
+ * on one key reaches the cache and the database once.
+ * Only for methods whose result depends on nothing but their arguments and may be shared between callers.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
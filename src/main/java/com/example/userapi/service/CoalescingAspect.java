@@ -0,0 +1,69 @@
+package com.example.userapi.service;
+
+import com.example.userapi.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Applies {@link Coalesced}: concurrent calls of the same method with equal arguments share one invocation.
+ * Ordered before the caching interceptor and the {@code @Timed} aspect, which run at the lowest precedence,
+ * so only the call that actually runs reaches the cache and is timed; the callers that joined it are counted
+ * by {@value #COALESCED_COUNTER}, tagged with class and method.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class CoalescingAspect {
+
+    /** Counter of calls answered by another caller's in-flight invocation. */
+    public static final String COALESCED_COUNTER = "users.coalesced";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, SingleFlight<List<Object>, Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the aspect.
+     *
+     * @param meterRegistry Registry for the coalesced calls counters.
+     */
+    public CoalescingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the call, or joins an in-flight call of the same method with equal arguments.
+     *
+     * @param joinPoint The intercepted call.
+     * @return The result of the shared invocation.
+     * @throws Throwable what the invocation threw.
+     */
+    @Around("@annotation(com.example.userapi.service.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return flights.computeIfAbsent(method, this::register)
+                .execute(Arrays.asList(joinPoint.getArgs()), joinPoint::proceed);
+    }
+
+    private SingleFlight<List<Object>, Object> register(Method method) {
+        SingleFlight<List<Object>, Object> flight = new SingleFlight<>();
+        FunctionCounter.builder(COALESCED_COUNTER, flight, SingleFlight::sharedCalls)
+                .description("Calls that shared an identical in-flight call instead of running their own")
+                .tag("class", method.getDeclaringClass().getName())
+                .tag("method", method.getName())
+                .register(meterRegistry);
+        return flight;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.PasswordHashingConfig;
+import com.example.userapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service that runs password hashing on the dedicated, bounded hashing executor.
+ * Request threads only wait for the result; when the pool and its queue are full
+ * the request fails fast with a ServiceUnavailableException instead of piling up.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final Timer queueWaitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+    private final Counter upgradedCounter;
+
+    /**
+     * Creates the hashing service.
+     *
+     * @param passwordEncoder The encoder that performs the actual hashing.
+     * @param executor        The bounded executor hashing work is submitted to.
+     * @param timeout         How long a caller waits for a hash before giving up.
+     * @param meterRegistry   Registry for queue wait, hash time and rejection metrics.
+     */
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier(PasswordHashingConfig.PASSWORD_HASHING_EXECUTOR) ExecutorService executor,
+                                  @Value("${userapi.hashing.timeout:5s}") Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                .description("Time hashing tasks spend queued before a hashing thread picks them up")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .description("Time spent computing password hashes")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests rejected because the hashing pool was saturated")
+                .register(meterRegistry);
+        this.upgradedCounter = Counter.builder("password.hashing.upgraded")
+                .description("Stored hashes replaced because they used an outdated algorithm or cost")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a new raw password that replaces an existing hash.
+     * The new hash always uses the configured target algorithm and cost, so a stored hash
+     * that was produced with an outdated one is upgraded as part of the write.
+     *
+     * @param rawPassword  The new password to hash.
+     * @param previousHash The hash currently stored for the user, or null if there is none.
+     * @return The encoded password.
+     * @throws ServiceUnavailableException if the hashing pool is saturated or the hash does not complete in time.
+     */
+    public String encodeReplacing(CharSequence rawPassword, String previousHash) {
+        recordUpgrade(previousHash);
+        return encode(rawPassword);
+    }
+
+    /**
+     * Non-blocking variant of {@link #encodeReplacing(CharSequence, String)}.
+     *
+     * @param rawPassword  The new password to hash.
+     * @param previousHash The hash currently stored for the user, or null if there is none.
+     * @return A future completing with the encoded password.
+     */
+    public CompletableFuture<String> encodeReplacingAsync(CharSequence rawPassword, String previousHash) {
+        recordUpgrade(previousHash);
+        return encodeAsync(rawPassword);
+    }
+
+    /**
+     * Hashes a raw password on the hashing executor and waits for the result.
+     *
+     * @param rawPassword The password to hash.
+     * @return The encoded password.
+     * @throws ServiceUnavailableException if the hashing pool is saturated or the hash does not complete in time.
+     */
+    public String encode(CharSequence rawPassword) {
+        Future<String> future;
+        try {
+            future = submit(rawPassword);
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+        return await(future);
+    }
+
+    /**
+     * Hashes a raw password on the hashing executor without blocking the caller.
+     * Saturation and timeouts complete the future exceptionally with a ServiceUnavailableException,
+     * as {@link #encode(CharSequence)} would throw it.
+     *
+     * @param rawPassword The password to hash.
+     * @return A future completing with the encoded password.
+     */
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<String> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> hash(rawPassword, enqueuedAt), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(rejected());
+        }
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Password hashing did not complete within {}", timeout);
+                        throw new ServiceUnavailableException("Password hashing timed out, please retry later");
+                    }
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new IllegalStateException("Password hashing failed", cause);
+                });
+    }
+
+    /**
+     * Hashes many raw passwords in parallel on the hashing executor, keeping at most
+     * {@code maxInFlight} of them submitted at a time so bulk work leaves queue capacity
+     * for interactive requests. When the pool still rejects a task, the caller waits for
+     * its own oldest hash to finish and retries instead of failing the whole batch.
+     *
+     * @param rawPasswords The passwords to hash.
+     * @param maxInFlight  The maximum number of hashes this call keeps submitted at once.
+     * @return The encoded passwords, in the same order as the input.
+     * @throws ServiceUnavailableException if a hash cannot be scheduled or does not complete in time.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int maxInFlight) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                while (inFlight.size() >= Math.max(1, maxInFlight)) {
+                    await(inFlight.poll());
+                }
+                Future<String> future = null;
+                while (future == null) {
+                    try {
+                        future = submit(rawPassword);
+                    } catch (RejectedExecutionException e) {
+                        if (inFlight.isEmpty()) {
+                            throw rejected();
+                        }
+                        await(inFlight.poll());
+                    }
+                }
+                futures.add(future);
+                inFlight.add(future);
+            }
+
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(await(future));
+            }
+            return encoded;
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private Future<String> submit(CharSequence rawPassword) {
+        long enqueuedAt = System.nanoTime();
+        return executor.submit(() -> hash(rawPassword, enqueuedAt));
+    }
+
+    private String hash(CharSequence rawPassword, long enqueuedAt) {
+        queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        return hashTimer.record(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private void recordUpgrade(String previousHash) {
+        if (previousHash != null && passwordEncoder.upgradeEncoding(previousHash)) {
+            upgradedCounter.increment();
+            log.debug("Upgrading outdated password hash to the configured encoder");
+        }
+    }
+
+    private ServiceUnavailableException rejected() {
+        rejectedCounter.increment();
+        log.warn("Password hashing pool saturated, rejecting request");
+        return new ServiceUnavailableException("Password hashing capacity exhausted, please retry later");
+    }
+
+    private String await(Future<String> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing did not complete within {}", timeout);
+            throw new ServiceUnavailableException("Password hashing timed out, please retry later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
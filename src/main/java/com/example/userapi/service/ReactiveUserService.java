@@ -0,0 +1,308 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.config.ReactiveConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserPatchDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.model.User;
+import com.example.userapi.repository.ReactiveUserRepository;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive profile.
+ * Database access goes through R2DBC; password hashing runs on the bounded hashing pool and
+ * completes the pipeline when done, so no event-loop thread ever blocks on BCrypt.
+ * Reads bypass the users cache, but updates and deletes evict it (and, with the shared cache, broadcast the
+ * eviction), since gRPC and GraphQL still read users through the cached {@link UserService}.
+ */
+@Service
+@Profile(ReactiveConfig.REACTIVE_PROFILE)
+@Slf4j
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final UserExistenceFilter existenceFilter;
+    private final UserSearchIndex searchIndex;
+    private final CacheManager cacheManager;
+    private final boolean softDelete;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository,
+                               PasswordHashingService passwordHashingService,
+                               UserExistenceFilter existenceFilter,
+                               UserSearchIndex searchIndex,
+                               CacheManager cacheManager,
+                               @Value("${" + UserPurgeJob.SOFT_DELETE_PROPERTY + ":false}") boolean softDelete) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.existenceFilter = existenceFilter;
+        this.searchIndex = searchIndex;
+        this.cacheManager = cacheManager;
+        this.softDelete = softDelete;
+    }
+
+    /**
+     * Retrieves one keyset page of users ordered by id.
+     *
+     * @param after The id of the last user seen by the client, or null to start from the beginning.
+     * @param limit The requested page size; clamped to [1, {@value UserService#MAX_PAGE_SIZE}].
+     * @return Mono emitting the users on the page and the cursor for the next one.
+     */
+    public Mono<UserPageDTO> getUsersPage(Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), UserService.MAX_PAGE_SIZE);
+        long cursor = after != null ? after : 0L;
+        return userRepository.findUserDTOsByIdGreaterThan(cursor, pageSize + 1)
+                .collectList()
+                .map(users -> {
+                    boolean hasNext = users.size() > pageSize;
+                    List<UserDTO> pageUsers = hasNext ? users.subList(0, pageSize) : users;
+                    UserPageDTO page = new UserPageDTO();
+                    page.setUsers(pageUsers);
+                    page.setNextCursor(hasNext ? pageUsers.get(pageUsers.size() - 1).getId() : null);
+                    return page;
+                });
+    }
+
+    /**
+     * Streams every user in ascending id order, with backpressure down to the database cursor.
+     *
+     * @return Flux of all users.
+     */
+    public Flux<UserDTO> streamUsers() {
+        return userRepository.streamUserDTOsOrderedById();
+    }
+
+    /**
+     * Retrieves a user by their unique ID.
+     *
+     * @param id The ID of the user to retrieve.
+     * @return Mono emitting the user, or failing with ResourceNotFoundException.
+     */
+    public Mono<UserDTO> getUserById(Long id) {
+        return userRepository.findUserDTOById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    /**
+     * Searches users by prefix or substring of username, email, first name or last name.
+     * The index lives in memory or on local disk, so the search runs on the bounded elastic scheduler.
+     *
+     * @param query The text to look for, matched case-insensitively.
+     * @param page  The zero-based page number.
+     * @param size  The page size.
+     * @return Mono emitting the ranked matches on the page and the total hit count.
+     */
+    public Mono<UserSearchPageDTO> searchUsers(String query, int page, int size) {
+        return Mono.fromCallable(() -> searchIndex.search(query, page, size))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Creates a new user.
+     * Availability is checked in one query, skipped when the existence filter rules out both values;
+     * the unique constraints still decide races between concurrent signups.
+     *
+     * @param userRequest Data for the user to be created.
+     * @return Mono emitting the created user, or failing with DuplicateResourceException or ServiceUnavailableException.
+     */
+    public Mono<UserDTO> createUser(UserRequestDTO userRequest) {
+        return ensureAvailable(userRequest.getUsername(), userRequest.getEmail())
+                .then(Mono.fromFuture(() -> passwordHashingService.encodeAsync(userRequest.getPassword())))
+                .flatMap(hash -> {
+                    User user = new User();
+                    user.setUsername(userRequest.getUsername());
+                    user.setPassword(hash);
+                    user.setEmail(userRequest.getEmail());
+                    user.setFirstName(userRequest.getFirstName());
+                    user.setLastName(userRequest.getLastName());
+                    return userRepository.insert(user);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserService::toDuplicateResourceException)
+                // Indexing writes to Lucene, which blocks
+                .publishOn(Schedulers.boundedElastic())
+                .map(id -> {
+                    existenceFilter.recordUser(userRequest.getUsername(), userRequest.getEmail());
+                    UserDTO created = new UserDTO(id, userRequest.getUsername(), userRequest.getEmail(),
+                            userRequest.getFirstName(), userRequest.getLastName(), 0L);
+                    searchIndex.index(created);
+                    return created;
+                });
+    }
+
+    /**
+     * Updates an existing user's information.
+     * The stored password hash is only read when a new password is supplied; otherwise the update
+     * leaves the password column alone, so it cannot undo a concurrent password change.
+     *
+     * @param id              The ID of the user to update.
+     * @param userRequest     Updated user data.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
+     * @return Mono emitting the updated user, or failing with ResourceNotFoundException,
+     *         DuplicateResourceException or PreconditionFailedException.
+     */
+    public Mono<UserDTO> updateUser(Long id, UserRequestDTO userRequest, Long expectedVersion) {
+        Mono<Long> update = userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()
+                ? userRepository.findPasswordById(id)
+                        .switchIfEmpty(Mono.error(() -> notFound(id)))
+                        .flatMap(previousHash -> Mono.fromFuture(() ->
+                                passwordHashingService.encodeReplacingAsync(userRequest.getPassword(), previousHash)))
+                        .flatMap(hash -> update(id, expectedVersion, userRequest, hash))
+                : update(id, expectedVersion, userRequest, null);
+        return written(id, expectedVersion, update);
+    }
+
+    /**
+     * Applies a partial update to a user with a single UPDATE statement, like {@link UserService#patchUser}.
+     * Only the supplied fields change, the password is hashed only when a new one is supplied, and the
+     * expected version, when given, is part of the statement's WHERE clause.
+     *
+     * @param id              The ID of the user to update.
+     * @param patch           The fields to change; null fields are left as they are.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
+     * @return Mono emitting the updated user, or failing with ResourceNotFoundException,
+     *         DuplicateResourceException or PreconditionFailedException.
+     */
+    public Mono<UserDTO> patchUser(Long id, UserPatchDTO patch, Long expectedVersion) {
+        Mono<Long> update = patch.getPassword() != null
+                ? Mono.fromFuture(() -> passwordHashingService.encodeAsync(patch.getPassword()))
+                        .flatMap(hash -> patch(id, expectedVersion, patch, hash))
+                : patch(id, expectedVersion, patch, null);
+        return written(id, expectedVersion, update);
+    }
+
+    /**
+     * Deletes a user with a single statement, using the affected-row count to detect a missing user.
+     * In soft-delete mode the user is only stamped as deleted, and removed later by the purge job.
+     *
+     * @param id The ID of the user to delete.
+     * @return Mono completing when the user is deleted, or failing with ResourceNotFoundException.
+     */
+    public Mono<Void> deleteUser(Long id) {
+        Mono<Long> delete = softDelete ? userRepository.softDeleteById(id, Instant.now()) : userRepository.deleteById(id);
+        return delete
+                .publishOn(Schedulers.boundedElastic())
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return Mono.error(notFound(id));
+                    }
+                    evictCached(id);
+                    if (!softDelete) {
+                        existenceFilter.recordDeletion();
+                    }
+                    searchIndex.remove(id);
+                    log.debug("Deleted user with id {}", id);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Long> update(Long id, Long expectedVersion, UserRequestDTO userRequest, String hash) {
+        return userRepository.update(id, expectedVersion, userRequest.getEmail(), userRequest.getFirstName(),
+                userRequest.getLastName(), hash);
+    }
+
+    private Mono<Long> patch(Long id, Long expectedVersion, UserPatchDTO patch, String hash) {
+        return userRepository.patch(id, expectedVersion, patch.getEmail(), patch.getFirstName(), patch.getLastName(), hash);
+    }
+
+    /**
+     * Reads back a user after an update statement, or explains why it matched no row.
+     * Like the blocking service, the user is read by primary key rather than returned by the statement,
+     * so the same SQL runs on every database.
+     */
+    private Mono<UserDTO> written(Long id, Long expectedVersion, Mono<Long> update) {
+        return update
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserService::toDuplicateResourceException)
+                .flatMap(updated -> updated == 0 ? rejected(id, expectedVersion) : userRepository.findUserDTOById(id))
+                // Indexing writes to Lucene and evicting may call Redis, both of which block
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(user -> {
+                    evictCached(id);
+                    existenceFilter.recordUser(user.getUsername(), user.getEmail());
+                    searchIndex.index(user);
+                });
+    }
+
+    private Mono<UserDTO> rejected(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(notFound(id));
+        }
+        // Only a rejected write pays for telling a stale version from a missing user
+        return userRepository.existsById(id).flatMap(exists -> {
+            if (!exists) {
+                return Mono.error(notFound(id));
+            }
+            log.warn("User {} is not at version {}", id, expectedVersion);
+            return Mono.error(new PreconditionFailedException("User " + id + " has been modified"));
+        });
+    }
+
+    private void evictCached(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    private Mono<Void> ensureAvailable(String username, String email) {
+        if (!existenceFilter.mightContainUsername(username) && !existenceFilter.mightContainEmail(email)) {
+            return Mono.empty();
+        }
+        return userRepository.findUsernamesByUsernameOrEmail(username, email)
+                .collectList()
+                .flatMap(conflicts -> {
+                    existenceFilter.recordConfirmation(!conflicts.isEmpty());
+                    if (conflicts.contains(username)) {
+                        log.warn("Username {} is already taken", username);
+                        return Mono.error(new DuplicateResourceException("username", "Username is already taken"));
+                    }
+                    if (!conflicts.isEmpty()) {
+                        log.warn("Email {} is already in use", email);
+                        return Mono.error(new DuplicateResourceException("email", "Email is already in use"));
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Maps a unique constraint violation raised through R2DBC to the field it protects. R2DBC drivers do not
+     * expose the constraint name, but every supported database quotes it in the message.
+     *
+     * @throws DataIntegrityViolationException if the violation is not on the username or email constraint.
+     */
+    private static DuplicateResourceException toDuplicateResourceException(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcDataIntegrityViolationException && cause.getMessage() != null) {
+                DuplicateResourceException duplicate = UserService.duplicateOf(cause.getMessage());
+                if (duplicate != null) {
+                    return duplicate;
+                }
+                break;
+            }
+        }
+        throw e;
+    }
+
+    private static ResourceNotFoundException notFound(Long id) {
+        log.error("User not found with id {}", id);
+        return new ResourceNotFoundException("User not found with id " + id);
+    }
+}
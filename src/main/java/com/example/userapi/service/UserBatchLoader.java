@@ -0,0 +1,223 @@
+package com.example.userapi.service;
+
+import com.example.userapi.cache.TwoLevelCache;
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads users by id in batches, in the manner of a DataLoader.
+ * Ids missing from the users cache are queued; the queue is flushed as one {@code WHERE id IN (...)} query
+ * once the batch window has passed since the first queued id, or as soon as it holds max-batch-size ids.
+ * Ids requested by concurrent callers within one window therefore share a query, and an id queued twice is
+ * loaded once.
+ * The loader has no threads of its own: the caller that opened a batch waits out the window and then runs
+ * the query, and a caller that fills a batch runs it at once. A slow query thus holds up only the callers
+ * waiting on its batch, and batches of successive windows run in parallel on their callers' threads.
+ * Loaded users are not added to the cache: a batch may read a user just before it is deleted, and unlike the
+ * cache's own loads, nothing would stop the old value from being stored.
+ */
+@Component
+@Slf4j
+public class UserBatchLoader {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** The batch collecting ids; null until the next id is queued. */
+    private Batch open;
+
+    /**
+     * Creates the loader.
+     *
+     * @param userRepository Repository used to load users.
+     * @param cacheManager   Cache manager holding the users cache, checked before queueing an id.
+     * @param window         How long a batch collects ids before it is flushed.
+     * @param maxBatchSize   Number of ids that flushes a batch at once.
+     * @param meterRegistry  Registry for the batch size summary.
+     */
+    public UserBatchLoader(UserRepository userRepository,
+                           CacheManager cacheManager,
+                           @Value("${userapi.lookup.batch-window:2ms}") Duration window,
+                           @Value("${userapi.lookup.max-batch-size:500}") int maxBatchSize,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("users.lookup.batch.size")
+                .description("Ids loaded per multi-get query")
+                .baseUnit("ids")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the users with the given ids, from the cache where possible and otherwise through batched queries.
+     * Blocks until every id has been loaded.
+     *
+     * @param ids The ids to load; must not contain null.
+     * @return The users found, by id; ids without a user are absent.
+     */
+    public Map<Long, UserDTO> loadAll(Collection<Long> ids) {
+        Map<Long, UserDTO> users = readCache(ids);
+        Map<Long, CompletableFuture<UserDTO>> pending = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (!users.containsKey(id)) {
+                pending.putIfAbsent(id, null);
+            }
+        }
+        if (pending.isEmpty()) {
+            return users;
+        }
+
+        Enqueued enqueued = enqueue(pending);
+        enqueued.full().forEach(this::dispatch);
+        enqueued.opened().forEach(this::awaitWindow);
+        try {
+            pending.forEach((id, future) -> {
+                UserDTO user = future.join();
+                if (user != null) {
+                    users.put(id, user);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return users;
+    }
+
+    /**
+     * Looks the ids up in the users cache. A two-level cache is read with one multi-get, so its shared level
+     * costs a single round trip for all ids rather than one per id.
+     */
+    private Map<Long, UserDTO> readCache(Collection<Long> ids) {
+        Map<Long, UserDTO> users = new HashMap<>();
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.getAll(ids).forEach((id, user) -> users.put(id, (UserDTO) user));
+        } else if (cache != null) {
+            for (Long id : ids) {
+                UserDTO cached = cache.get(id, UserDTO.class);
+                if (cached != null) {
+                    users.put(id, cached);
+                }
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Queues the ids, filling in the future of each, and cuts off every batch that reached its maximum size.
+     *
+     * @return The batches the caller filled, to dispatch now, and those it opened, to dispatch after the window.
+     */
+    private Enqueued enqueue(Map<Long, CompletableFuture<UserDTO>> pending) {
+        List<Batch> full = new ArrayList<>();
+        List<Batch> opened = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Map.Entry<Long, CompletableFuture<UserDTO>> entry : pending.entrySet()) {
+                if (open == null) {
+                    open = new Batch(System.nanoTime() + windowNanos);
+                    opened.add(open);
+                }
+                entry.setValue(open.futures.computeIfAbsent(entry.getKey(), id -> new CompletableFuture<>()));
+                if (open.futures.size() >= maxBatchSize) {
+                    open.closed.countDown();
+                    full.add(open);
+                    open = null;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Enqueued(full, opened);
+    }
+
+    /**
+     * Waits until the batch's window has passed or another caller has filled it, then dispatches it
+     * unless that caller already has.
+     */
+    private void awaitWindow(Batch batch) {
+        try {
+            batch.closed.await(batch.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Load without waiting out the window
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        if (!batch.dispatched.compareAndSet(false, true)) {
+            return;
+        }
+        Map<Long, CompletableFuture<UserDTO>> futures = batch.futures;
+        try {
+            batchSizes.record(futures.size());
+            Map<Long, UserDTO> found = new HashMap<>();
+            for (UserDTO user : userRepository.findUserDTOsByIdIn(futures.keySet())) {
+                found.put(user.getId(), user);
+            }
+            log.debug("Loaded {} of {} users in one batch", found.size(), futures.size());
+            futures.forEach((id, future) -> future.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            log.warn("Batch load of {} users failed", futures.size(), e);
+            futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Ids queued for one query. The futures are only modified under the loader's lock while the batch is open.
+     */
+    private static final class Batch {
+        final Map<Long, CompletableFuture<UserDTO>> futures = new LinkedHashMap<>();
+        /** Released when a caller fills the batch, ending the opener's wait early. */
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicBoolean dispatched = new AtomicBoolean();
+        final long deadline;
+
+        Batch(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    private record Enqueued(List<Batch> full, List<Batch> opened) {
+    }
+}
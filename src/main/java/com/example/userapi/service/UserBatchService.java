@@ -0,0 +1,429 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.config.MetricsConfig;
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.UserBatchUpdateDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.model.User;
+import com.example.userapi.repository.UserIdentity;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for creating, updating and deleting users in bulk.
+ * Every item is validated up front, passwords are hashed in parallel on the hashing pool,
+ * and rows are written in chunked transactions so Hibernate can send them as JDBC batches.
+ * Each item gets its own result; one bad item never fails the rest of the batch.
+ */
+@Service
+@Timed(value = MetricsConfig.USER_BATCH_TIMER, description = "Bulk user operations")
+@Slf4j
+public class UserBatchService {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    @Autowired
+    UserExistenceFilter existenceFilter;
+
+    @Autowired
+    UserSearchIndex searchIndex;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Value("${userapi.batch.chunk-size:500}")
+    int chunkSize;
+
+    @Value("${userapi.batch.hashing-parallelism:0}")
+    int hashingParallelism;
+
+    @Value("${" + UserPurgeJob.SOFT_DELETE_PROPERTY + ":false}")
+    boolean softDelete;
+
+    /**
+     * Creates many users.
+     * Items that fail validation, repeat a username or email from an earlier item, or collide with
+     * an existing user are reported individually; all others are inserted in chunks.
+     *
+     * @param requests The users to create.
+     * @return One result per request, in request order.
+     */
+    public List<BatchItemResultDTO> createUsers(List<UserRequestDTO> requests) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[requests.size()];
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserRequestDTO request = requests.get(i);
+            BatchItemResultDTO invalid = validate(i, request);
+            if (invalid != null) {
+                results[i] = invalid;
+            } else if (!usernames.add(request.getUsername())) {
+                results[i] = failure(i, null, HttpStatus.CONFLICT, "Username appears more than once in the batch", "username");
+            } else if (!emails.add(request.getEmail())) {
+                results[i] = failure(i, null, HttpStatus.CONFLICT, "Email appears more than once in the batch", "email");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        accepted = rejectExisting(requests, accepted, results);
+        List<String> hashes = passwordHashingService.encodeAll(
+                accepted.stream().map(i -> requests.get(i).getPassword()).toList(), hashingParallelism());
+        Map<Integer, String> hashByIndex = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            hashByIndex.put(accepted.get(i), hashes.get(i));
+        }
+
+        for (List<Integer> chunk : chunks(accepted)) {
+            List<User> users = chunk.stream().map(i -> newUser(requests.get(i), hashByIndex.get(i))).toList();
+            try {
+                List<User> saved = transactionTemplate().execute(status -> userRepository.saveAllAndFlush(users));
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = created(chunk.get(j), saved.get(j));
+                }
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch insert of {} users hit a constraint violation, retrying them one by one", chunk.size());
+                for (Integer i : chunk) {
+                    results[i] = createOne(i, newUser(requests.get(i), hashByIndex.get(i)));
+                }
+            }
+        }
+        log.debug("Batch create of {} users finished", requests.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Updates many users.
+     * Only the supplied fields of each item are changed, and only supplied passwords are hashed.
+     * Items that fail validation, repeat an id, refer to a missing user or collide on email are
+     * reported individually; all others are updated in chunks. A chunk that hits a constraint violation
+     * or a concurrent edit of one of its users is retried item by item.
+     *
+     * @param requests The updates to apply.
+     * @return One result per request, in request order.
+     */
+    public List<BatchItemResultDTO> updateUsers(List<UserBatchUpdateDTO> requests) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[requests.size()];
+        Set<Long> ids = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserBatchUpdateDTO request = requests.get(i);
+            BatchItemResultDTO invalid = validate(i, request);
+            if (invalid != null) {
+                results[i] = invalid;
+            } else if (!ids.add(request.getId())) {
+                results[i] = failure(i, request.getId(), HttpStatus.BAD_REQUEST, "Id appears more than once in the batch", "id");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        List<Integer> passwordChanges = accepted.stream().filter(i -> requests.get(i).getPassword() != null).toList();
+        List<String> hashes = passwordHashingService.encodeAll(
+                passwordChanges.stream().map(i -> requests.get(i).getPassword()).toList(), hashingParallelism());
+        Map<Integer, String> hashByIndex = new HashMap<>();
+        for (int i = 0; i < passwordChanges.size(); i++) {
+            hashByIndex.put(passwordChanges.get(i), hashes.get(i));
+        }
+
+        for (List<Integer> chunk : chunks(accepted)) {
+            try {
+                Map<Integer, BatchItemResultDTO> chunkResults = transactionTemplate().execute(status -> {
+                    Map<Long, User> users = userRepository.findAllById(chunk.stream().map(i -> requests.get(i).getId()).toList())
+                            .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+                    Map<Integer, BatchItemResultDTO> updated = new HashMap<>();
+                    for (Integer i : chunk) {
+                        updated.put(i, applyUpdate(i, users.get(requests.get(i).getId()), requests.get(i), hashByIndex.get(i)));
+                    }
+                    userRepository.flush();
+                    updated.values().forEach(result -> withUser(result, users.get(result.getId())));
+                    return updated;
+                });
+                chunkResults.forEach((i, result) -> results[i] = result);
+            } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+                log.warn("Batch update of {} users hit a constraint violation or a concurrent edit, retrying them one by one",
+                        chunk.size());
+                for (Integer i : chunk) {
+                    results[i] = updateOne(i, requests.get(i), hashByIndex.get(i));
+                }
+            }
+        }
+
+        Cache cache = usersCache();
+        for (BatchItemResultDTO result : results) {
+            if (result.getStatus() == HttpStatus.OK.value()) {
+                existenceFilter.recordUser(result.getUser().getUsername(), result.getUser().getEmail());
+                searchIndex.index(result.getUser());
+                if (cache != null) {
+                    cache.evict(result.getId());
+                }
+            }
+        }
+        log.debug("Batch update of {} users finished", requests.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Deletes many users, one DELETE statement per chunk, or one UPDATE per chunk in soft-delete mode.
+     *
+     * @param ids The ids of the users to delete.
+     * @return One result per id, in request order; missing users are reported as 404.
+     */
+    public List<BatchItemResultDTO> deleteUsers(List<Long> ids) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[ids.size()];
+        Set<Long> seen = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST, "Id is mandatory", "id");
+            } else if (!seen.add(id)) {
+                results[i] = failure(i, id, HttpStatus.BAD_REQUEST, "Id appears more than once in the batch", "id");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        Cache cache = usersCache();
+        for (List<Integer> chunk : chunks(accepted)) {
+            List<Long> chunkIds = chunk.stream().map(ids::get).toList();
+            Set<Long> deleted = transactionTemplate().execute(status -> {
+                Set<Long> existing = new HashSet<>(userRepository.findExistingIds(chunkIds));
+                if (existing.isEmpty()) {
+                    return existing;
+                }
+                if (softDelete) {
+                    userRepository.softDeleteAllById(existing, Instant.now());
+                } else {
+                    userRepository.deleteAllByIdInBatch(existing);
+                }
+                return existing;
+            });
+            for (Integer i : chunk) {
+                Long id = ids.get(i);
+                if (deleted.contains(id)) {
+                    BatchItemResultDTO result = new BatchItemResultDTO();
+                    result.setIndex(i);
+                    result.setStatus(HttpStatus.OK.value());
+                    result.setId(id);
+                    results[i] = result;
+                    if (!softDelete) {
+                        existenceFilter.recordDeletion();
+                    }
+                    searchIndex.remove(id);
+                    if (cache != null) {
+                        cache.evict(id);
+                    }
+                } else {
+                    results[i] = failure(i, id, HttpStatus.NOT_FOUND, "User not found with id " + id, null);
+                }
+            }
+        }
+        log.debug("Batch delete of {} users finished", ids.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Rejects accepted items whose username or email is already stored, using one query per chunk
+     * for the values the existence filter cannot rule out.
+     *
+     * @return The indexes that are still accepted.
+     */
+    private List<Integer> rejectExisting(List<UserRequestDTO> requests, List<Integer> accepted, BatchItemResultDTO[] results) {
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (List<Integer> chunk : chunks(accepted)) {
+            List<String> usernames = chunk.stream().map(i -> requests.get(i).getUsername())
+                    .filter(existenceFilter::mightContainUsername).toList();
+            List<String> emails = chunk.stream().map(i -> requests.get(i).getEmail())
+                    .filter(existenceFilter::mightContainEmail).toList();
+            if (usernames.isEmpty() && emails.isEmpty()) {
+                continue;
+            }
+            List<UserIdentity> conflicts = userRepository.findByUsernameInOrEmailIn(usernames, emails);
+            conflicts.forEach(identity -> {
+                takenUsernames.add(identity.getUsername());
+                takenEmails.add(identity.getEmail());
+            });
+            usernames.forEach(username -> existenceFilter.recordConfirmation(takenUsernames.contains(username)));
+            emails.forEach(email -> existenceFilter.recordConfirmation(takenEmails.contains(email)));
+        }
+
+        List<Integer> available = new ArrayList<>();
+        for (Integer i : accepted) {
+            UserRequestDTO request = requests.get(i);
+            if (takenUsernames.contains(request.getUsername())) {
+                results[i] = failure(i, null, HttpStatus.CONFLICT, "Username is already taken", "username");
+            } else if (takenEmails.contains(request.getEmail())) {
+                results[i] = failure(i, null, HttpStatus.CONFLICT, "Email is already in use", "email");
+            } else {
+                available.add(i);
+            }
+        }
+        return available;
+    }
+
+    private BatchItemResultDTO createOne(int index, User user) {
+        try {
+            User saved = transactionTemplate().execute(status -> userRepository.saveAndFlush(user));
+            return created(index, saved);
+        } catch (DataIntegrityViolationException e) {
+            return conflict(index, null, e);
+        }
+    }
+
+    private BatchItemResultDTO updateOne(int index, UserBatchUpdateDTO request, String hash) {
+        try {
+            return transactionTemplate().execute(status -> {
+                User user = userRepository.findById(request.getId()).orElse(null);
+                BatchItemResultDTO result = applyUpdate(index, user, request, hash);
+                userRepository.flush();
+                return withUser(result, user);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return conflict(index, request.getId(), e);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("User {} was modified while batch item {} updated it", request.getId(), index);
+            return failure(index, request.getId(), HttpStatus.CONFLICT, "User " + request.getId() + " has been modified", null);
+        }
+    }
+
+    private BatchItemResultDTO applyUpdate(int index, User user, UserBatchUpdateDTO request, String hash) {
+        if (user == null) {
+            return failure(index, request.getId(), HttpStatus.NOT_FOUND, "User not found with id " + request.getId(), null);
+        }
+        if (request.getEmail() != null) {
+            user.setEmail(request.getEmail());
+        }
+        if (request.getFirstName() != null) {
+            user.setFirstName(request.getFirstName());
+        }
+        if (request.getLastName() != null) {
+            user.setLastName(request.getLastName());
+        }
+        if (hash != null) {
+            user.setPassword(hash);
+        }
+
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(HttpStatus.OK.value());
+        result.setId(user.getId());
+        return result;
+    }
+
+    /**
+     * Attaches the updated user to a successful update result. Call after the flush, which increments the version.
+     */
+    private static BatchItemResultDTO withUser(BatchItemResultDTO result, User user) {
+        if (result.getStatus() == HttpStatus.OK.value()) {
+            result.setUser(UserService.convertToDTO(user));
+        }
+        return result;
+    }
+
+    private BatchItemResultDTO created(int index, User saved) {
+        existenceFilter.recordUser(saved.getUsername(), saved.getEmail());
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(HttpStatus.CREATED.value());
+        result.setId(saved.getId());
+        result.setUser(UserService.convertToDTO(saved));
+        searchIndex.index(result.getUser());
+        return result;
+    }
+
+    private static BatchItemResultDTO conflict(int index, Long id, DataIntegrityViolationException e) {
+        try {
+            DuplicateResourceException duplicate = UserService.toDuplicateResourceException(e);
+            return failure(index, id, HttpStatus.CONFLICT, duplicate.getMessage(), duplicate.getField());
+        } catch (DataIntegrityViolationException other) {
+            log.warn("Batch item {} violates a database constraint", index, other);
+            return failure(index, id, HttpStatus.BAD_REQUEST, "User violates a database constraint", null);
+        }
+    }
+
+    private BatchItemResultDTO validate(int index, Object request) {
+        if (request == null) {
+            return failure(index, null, HttpStatus.BAD_REQUEST, "Item is empty", null);
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        return violations.stream()
+                .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> failure(index, null, HttpStatus.BAD_REQUEST,
+                        "Validation failed: " + violation.getMessage(), violation.getPropertyPath().toString()))
+                .orElse(null);
+    }
+
+    private static BatchItemResultDTO failure(int index, Long id, HttpStatus status, String message, String field) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status.value());
+        result.setId(id);
+        result.setMessage(message);
+        result.setField(field);
+        return result;
+    }
+
+    private static User newUser(UserRequestDTO request, String hash) {
+        User user = new User();
+        user.setUsername(request.getUsername());
+        user.setPassword(hash);
+        user.setEmail(request.getEmail());
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        return user;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        int size = Math.max(1, chunkSize);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += size) {
+            chunks.add(indexes.subList(from, Math.min(indexes.size(), from + size)));
+        }
+        return chunks;
+    }
+
+    private int hashingParallelism() {
+        return hashingParallelism > 0 ? hashingParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private Cache usersCache() {
+        return cacheManager.getCache(CacheConfig.USERS_CACHE);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.userapi.service;
+
+import lombok.Getter;
+
+/**
+ * File formats supported by user import and export.
+ */
+@Getter
+public enum UserDataFormat {
+
+    /** Newline-delimited JSON, one user object per line. */
+    NDJSON("application/x-ndjson"),
+
+    /** Comma-separated values with a header row. */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    UserDataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Picks the format from a file name, treating anything that is not {@code .csv} as NDJSON.
+     *
+     * @param fileName The name or path of the file.
+     * @return The matching format.
+     */
+    public static UserDataFormat fromFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : NDJSON;
+    }
+}
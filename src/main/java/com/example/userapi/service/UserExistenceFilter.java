@@ -0,0 +1,253 @@
+package com.example.userapi.service;
+
+import com.example.userapi.repository.UserIdentity;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over every stored username and email.
+ * A negative answer means the value has never been stored, so existence checks can skip the
+ * database; a positive answer must still be confirmed against the database. The filters are
+ * built from a streamed table scan once the application is ready and kept up to date on writes.
+ * Until the first build completes every lookup is answered with "maybe", i.e. goes to the database.
+ */
+@Component
+@Slf4j
+public class UserExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long rebuildAfterDeletes;
+
+    /** Filters answering lookups; null until the first build completes. */
+    private volatile Filters current;
+    /** Filters being built by a running rebuild; writes are recorded into both. */
+    private volatile Filters pending;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong deletesSinceRebuild = new AtomicLong();
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+
+    /**
+     * Creates the existence filter.
+     *
+     * @param userRepository      Repository used to scan existing users.
+     * @param transactionManager  Transaction manager for the read-only scan.
+     * @param enabled             Whether lookups may be short-circuited at all.
+     * @param expectedInsertions  Number of users each filter is sized for.
+     * @param falsePositiveRate   Target false positive rate at that size.
+     * @param rebuildAfterDeletes Number of deletions after which the filters are rebuilt to drop stale entries.
+     * @param meterRegistry       Registry for lookup outcome counters and false positive rate gauges.
+     */
+    public UserExistenceFilter(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${userapi.existence-filter.enabled:true}") boolean enabled,
+                               @Value("${userapi.existence-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${userapi.existence-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${userapi.existence-filter.rebuild-after-deletes:10000}") long rebuildAfterDeletes,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildAfterDeletes = rebuildAfterDeletes;
+
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.truePositives = lookupCounter(meterRegistry, "true_positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        Gauge.builder("users.existence.filter.fpp.expected", this, UserExistenceFilter::expectedFalsePositiveRate)
+                .description("False positive rate estimated from how full the filters are")
+                .register(meterRegistry);
+        Gauge.builder("users.existence.filter.fpp.observed", this, UserExistenceFilter::observedFalsePositiveRate)
+                .description("Share of positive filter answers that the database did not confirm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a username may already be stored.
+     *
+     * @param username The username to check.
+     * @return False only if the username is definitely not stored.
+     */
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return filters == null || username == null || recordAnswer(filters.usernames().mightContain(username));
+    }
+
+    /**
+     * Checks whether an email may already be stored.
+     *
+     * @param email The email to check.
+     * @return False only if the email is definitely not stored.
+     */
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return filters == null || email == null || recordAnswer(filters.emails().mightContain(email));
+    }
+
+    /**
+     * Records the database answer for a lookup the filter could not rule out,
+     * feeding the observed false positive rate.
+     *
+     * @param existed Whether the database found the value.
+     */
+    public void recordConfirmation(boolean existed) {
+        (existed ? truePositives : falsePositives).increment();
+    }
+
+    /**
+     * Records a stored username and email. Call after the write has committed.
+     *
+     * @param username The stored username.
+     * @param email    The stored email.
+     */
+    public void recordUser(String username, String email) {
+        // Pending first: a rebuild publishes its filters as current before clearing pending, so reading
+        // pending before current can miss a running rebuild only if it has already been published as current.
+        // If neither is caught, the rebuild had not started its scan, which then sees the committed write.
+        put(pending, username, email);
+        put(current, username, email);
+    }
+
+    /**
+     * Records a deleted user. Bloom filters cannot forget values, so deleted users stay positive
+     * (and fall through to the database) until enough deletions have accumulated to trigger a rebuild.
+     */
+    public void recordDeletion() {
+        recordDeletions(1);
+    }
+
+    /**
+     * Records several deleted users at once, such as a purge of soft-deleted users.
+     *
+     * @param count The number of users deleted.
+     */
+    public void recordDeletions(long count) {
+        if (count > 0 && deletesSinceRebuild.addAndGet(count) >= rebuildAfterDeletes) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Builds the filters in the background once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+
+    /**
+     * Rebuilds the filters on a background thread, unless a rebuild is already running.
+     */
+    public void rebuildAsync() {
+        if (!enabled || rebuilding.get()) {
+            return;
+        }
+        Thread thread = new Thread(this::rebuild, "existence-filter-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuilds the filters from a streamed scan of the users table and swaps them in.
+     * Writes that happen while the scan runs are recorded into the new filters as well.
+     */
+    public void rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Filters previous = current;
+            long capacity = previous == null ? expectedInsertions
+                    : Math.max(expectedInsertions, previous.usernames().approximateInsertions() * 2);
+            Filters building = new Filters(new BloomFilter(capacity, falsePositiveRate),
+                    new BloomFilter(capacity, falsePositiveRate));
+            pending = building;
+            deletesSinceRebuild.set(0);
+
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+                    identities.forEach(identity -> put(building, identity.getUsername(), identity.getEmail()));
+                }
+            });
+            current = building;
+            log.info("Rebuilt user existence filter with {} users in {} ms",
+                    building.usernames().approximateInsertions(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild user existence filter", e);
+        } finally {
+            pending = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * @return The estimated false positive rate of the fuller of the two filters, or 1 before the first build.
+     */
+    public double expectedFalsePositiveRate() {
+        Filters filters = current;
+        if (filters == null) {
+            return 1.0;
+        }
+        return Math.max(filters.usernames().expectedFalsePositiveRate(), filters.emails().expectedFalsePositiveRate());
+    }
+
+    /**
+     * @return The share of positive answers the database did not confirm, or 0 if there were none.
+     */
+    public double observedFalsePositiveRate() {
+        double positives = truePositives.count() + falsePositives.count();
+        return positives == 0 ? 0.0 : falsePositives.count() / positives;
+    }
+
+    private boolean recordAnswer(boolean mightContain) {
+        if (!mightContain) {
+            negatives.increment();
+        }
+        return mightContain;
+    }
+
+    private static void put(Filters filters, String username, String email) {
+        if (filters == null) {
+            return;
+        }
+        if (username != null) {
+            filters.usernames().put(username);
+        }
+        if (email != null) {
+            filters.emails().put(email);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("users.existence.filter.lookups")
+                .description("Existence lookups by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+}
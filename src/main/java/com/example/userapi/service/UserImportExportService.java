@@ -0,0 +1,334 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.ImportReportDTO;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Service class for streaming users in and out as NDJSON or CSV.
+ * Imports run as a two-stage pipeline: the calling thread parses the next chunk while a task on the
+ * application task executor validates, hashes and batch-inserts the previous one through {@link UserBatchService}.
+ * At most two chunks are held in memory, however large the input is.
+ * Exports stream straight from a database cursor.
+ */
+@Service
+@Slf4j
+public class UserImportExportService {
+
+    /** Maximum number of failed records listed in an import report. */
+    public static final int MAX_REPORTED_FAILURES = 1000;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final CsvSchema EXPORT_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("username")
+            .addColumn("email")
+            .addColumn("firstName")
+            .addColumn("lastName")
+            .build()
+            .withHeader();
+
+    private final UserBatchService userBatchService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    private final Counter createdRecords;
+    private final Counter failedRecords;
+    private final Counter exportedRecords;
+    private final Timer chunkTimer;
+
+    public UserImportExportService(UserBatchService userBatchService,
+                                   UserService userService,
+                                   ObjectMapper objectMapper,
+                                   @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                                   @Value("${userapi.batch.chunk-size:500}") int chunkSize,
+                                   MeterRegistry meterRegistry) {
+        this.userBatchService = userBatchService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.createdRecords = Counter.builder("users.import.records")
+                .tag("result", "created")
+                .description("Imported records that created a user")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("users.import.records")
+                .tag("result", "failed")
+                .description("Imported records that were rejected")
+                .register(meterRegistry);
+        this.exportedRecords = Counter.builder("users.export.records")
+                .description("Users written by exports")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("users.import.chunk")
+                .description("Time to validate, hash and insert one import chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports users from a stream without reading it fully into memory.
+     * Malformed or invalid records are reported and skipped; the rest of the input is still imported.
+     *
+     * @param in     The NDJSON or CSV input; it is not closed.
+     * @param format The format of the input.
+     * @return A report of how many records were processed, created and rejected.
+     * @throws IOException If the input cannot be read.
+     */
+    public ImportReportDTO importUsers(InputStream in, UserDataFormat format) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        long start = System.nanoTime();
+        Future<List<BatchItemResultDTO>> inFlight = null;
+        try {
+            RecordReader reader = format == UserDataFormat.CSV ? new CsvRecordReader(in) : new NdjsonRecordReader(in);
+            List<Integer> inFlightPositions = List.of();
+            int recordIndex = 0;
+            boolean more = true;
+            while (more || inFlight != null) {
+                List<UserRequestDTO> chunk = new ArrayList<>(chunkSize);
+                List<Integer> positions = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && (more = reader.hasNext())) {
+                    int index = recordIndex++;
+                    try {
+                        chunk.add(reader.next());
+                        positions.add(index);
+                    } catch (MalformedRecordException e) {
+                        recordFailure(report, failure(index, "Malformed record: " + e.getMessage()));
+                    }
+                }
+                if (inFlight != null) {
+                    recordResults(report, await(inFlight), inFlightPositions);
+                    logProgress(report, start);
+                    inFlight = null;
+                }
+                if (!chunk.isEmpty()) {
+                    inFlight = taskExecutor.submit(() -> chunkTimer.record(() -> userBatchService.createUsers(chunk)));
+                    inFlightPositions = positions;
+                }
+            }
+        } finally {
+            if (inFlight != null) {
+                inFlight.cancel(true);
+            }
+        }
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        report.setRecordsPerSecond(ratePerSecond(report.getProcessed(), start));
+        log.info("Import finished: {} processed, {} created, {} failed in {} ms",
+                report.getProcessed(), report.getCreated(), report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * Exports every user, in id order, straight from a database cursor.
+     *
+     * @param out    The stream to write to; it is flushed but not closed.
+     * @param format The format to write.
+     * @return The number of users written.
+     * @throws IOException If the output cannot be written.
+     */
+    public long exportUsers(OutputStream out, UserDataFormat format) throws IOException {
+        long[] count = {0};
+        long start = System.nanoTime();
+        try (SequenceWriter writer = format == UserDataFormat.CSV
+                ? CSV_MAPPER.writer(EXPORT_SCHEMA).writeValues(out)
+                : null) {
+            userService.streamUsers(user -> {
+                try {
+                    if (writer != null) {
+                        writer.write(user);
+                    } else {
+                        out.write(objectMapper.writeValueAsBytes(user));
+                        out.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+                exportedRecords.increment();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        log.info("Export finished: {} users in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    private void recordResults(ImportReportDTO report, List<BatchItemResultDTO> results, List<Integer> positions) {
+        for (int i = 0; i < results.size(); i++) {
+            BatchItemResultDTO result = results.get(i);
+            result.setIndex(positions.get(i));
+            if (result.getStatus() == HttpStatus.CREATED.value()) {
+                report.setProcessed(report.getProcessed() + 1);
+                report.setCreated(report.getCreated() + 1);
+                createdRecords.increment();
+            } else {
+                recordFailure(report, result);
+            }
+        }
+    }
+
+    private void recordFailure(ImportReportDTO report, BatchItemResultDTO failure) {
+        report.setProcessed(report.getProcessed() + 1);
+        report.setFailed(report.getFailed() + 1);
+        failedRecords.increment();
+        if (report.getFailures().size() < MAX_REPORTED_FAILURES) {
+            failure.setUser(null);
+            report.getFailures().add(failure);
+        }
+    }
+
+    private static void logProgress(ImportReportDTO report, long start) {
+        log.info("Import progress: {} processed, {} created, {} failed ({} records/s)",
+                report.getProcessed(), report.getCreated(), report.getFailed(),
+                String.format("%.0f", ratePerSecond(report.getProcessed(), start)));
+    }
+
+    private static double ratePerSecond(long count, long start) {
+        return count * 1_000_000_000d / Math.max(1, System.nanoTime() - start);
+    }
+
+    private static BatchItemResultDTO failure(int index, String message) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(HttpStatus.BAD_REQUEST.value());
+        result.setMessage(message);
+        return result;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Import was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Reads user records one at a time from an input stream.
+     */
+    private interface RecordReader {
+
+        boolean hasNext() throws IOException;
+
+        UserRequestDTO next() throws IOException, MalformedRecordException;
+    }
+
+    /**
+     * Signals a record that cannot be parsed; the reader can continue with the next one.
+     */
+    private static class MalformedRecordException extends Exception {
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Reads one JSON object per line, skipping blank lines.
+     */
+    private class NdjsonRecordReader implements RecordReader {
+
+        private final BufferedReader reader;
+        private String line;
+
+        NdjsonRecordReader(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            while (line == null) {
+                String next = reader.readLine();
+                if (next == null) {
+                    return false;
+                }
+                if (!next.isBlank()) {
+                    line = next;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public UserRequestDTO next() throws MalformedRecordException {
+            String current = line;
+            line = null;
+            try {
+                return objectMapper.readValue(current, UserRequestDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new MalformedRecordException(e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads CSV rows, mapping columns by the names in the header row.
+     */
+    private static class CsvRecordReader implements RecordReader {
+
+        private final MappingIterator<UserRequestDTO> rows;
+
+        CsvRecordReader(InputStream in) throws IOException {
+            this.rows = CSV_MAPPER.readerFor(UserRequestDTO.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            return rows.hasNextValue();
+        }
+
+        @Override
+        public UserRequestDTO next() throws MalformedRecordException {
+            try {
+                return rows.nextValue();
+            } catch (IOException | RuntimeJsonMappingException e) {
+                throw new MalformedRecordException(e.getMessage());
+            }
+        }
+    }
+}
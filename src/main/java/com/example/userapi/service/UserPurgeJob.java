@@ -0,0 +1,81 @@
+package com.example.userapi.service;
+
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Background job that permanently removes soft-deleted users once their retention period has passed.
+ * Rows are removed in short chunked transactions, so a purge never holds locks on a large part of the table.
+ * Only active in soft-delete mode.
+ */
+@Component
+@ConditionalOnProperty(name = UserPurgeJob.SOFT_DELETE_PROPERTY, havingValue = "true")
+@EnableScheduling
+@Slf4j
+public class UserPurgeJob {
+
+    /** Property that switches user deletion to soft-delete mode. */
+    public static final String SOFT_DELETE_PROPERTY = "userapi.soft-delete.enabled";
+
+    private final UserRepository userRepository;
+    private final UserExistenceFilter existenceFilter;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter purged;
+
+    /**
+     * Creates the purge job.
+     *
+     * @param userRepository  Repository used to remove soft-deleted users.
+     * @param existenceFilter Filter told about removed users, whose usernames and emails become free.
+     * @param retention       How long soft-deleted users are kept before they are removed.
+     * @param chunkSize       Number of users removed per transaction.
+     * @param meterRegistry   Registry for the purged users counter.
+     */
+    public UserPurgeJob(UserRepository userRepository,
+                        UserExistenceFilter existenceFilter,
+                        @Value("${userapi.soft-delete.retention:30d}") Duration retention,
+                        @Value("${userapi.soft-delete.purge-chunk-size:1000}") int chunkSize,
+                        MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.existenceFilter = existenceFilter;
+        this.retention = retention;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.purged = Counter.builder("users.purged")
+                .description("Soft-deleted users permanently removed by the purge job")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Removes every user soft-deleted longer than the retention period ago.
+     *
+     * @return The number of users removed.
+     */
+    @Scheduled(initialDelayString = "${userapi.soft-delete.purge-interval:PT1H}",
+            fixedDelayString = "${userapi.soft-delete.purge-interval:PT1H}")
+    public long purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        long total = 0;
+        int removed;
+        do {
+            removed = userRepository.purgeDeletedBefore(cutoff, chunkSize);
+            total += removed;
+            purged.increment(removed);
+            existenceFilter.recordDeletions(removed);
+        } while (removed == chunkSize);
+        if (total > 0) {
+            log.info("Purged {} users soft-deleted before {}", total, cutoff);
+        }
+        return total;
+    }
+}
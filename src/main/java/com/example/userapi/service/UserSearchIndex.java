@@ -0,0 +1,466 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over username, email, first name and last name, serving prefix and
+ * substring search without scanning the users table.
+ * Each field is indexed twice: as one lower-cased term, which answers exact and prefix matches
+ * through the term dictionary, and as overlapping trigrams with positions, which answer substring
+ * matches as a phrase of the query's trigrams. The displayed values are stored in the index, so
+ * results are returned without a database round trip.
+ * The index is built from a streamed table scan once the application is ready and kept up to date
+ * on writes, like {@link UserExistenceFilter}; writes become searchable within the refresh interval.
+ * A failed build is retried with exponential backoff until it succeeds; {@link UserSearchIndexHealthIndicator}
+ * reports the build state.
+ * Each node holds its own index. With the shared cache enabled, {@link UserSearchIndexSync} tells the other
+ * nodes which users this node wrote, and they reload them from the database.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    /** Shortest query that is also matched as a substring; shorter queries match prefixes only. */
+    public static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private static final String ID = "id";
+    private static final String ID_ORDER = "id_order";
+    private static final String NGRAM_SUFFIX = ".ngram";
+    private static final String STORED_PREFIX = "stored.";
+    private static final float EXACT_SCORE = 3;
+    private static final float PREFIX_SCORE = 2;
+    private static final float SUBSTRING_SCORE = 1;
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID_ORDER, SortField.Type.LONG));
+
+    /** Searchable fields and their weights in the ranking. */
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+            "username", 4f,
+            "email", 3f,
+            "firstName", 2f,
+            "lastName", 2f);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private final Duration retryInitialDelay;
+    private final Duration retryMaxDelay;
+
+    /** False until the first build completes; searches fail with 503 until then. */
+    private volatile boolean ready;
+    /** Why the last build attempt failed; null if it has not failed. */
+    private volatile Exception lastBuildFailure;
+    private volatile int failedBuilds;
+    private volatile Thread buildThread;
+    /** Ids written or deleted while the initial build runs; the build must not overwrite them. */
+    private volatile Set<Long> touchedDuringBuild;
+    private final Object buildLock = new Object();
+    private final List<LongConsumer> writeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates the search index.
+     *
+     * @param userRepository     Repository used to scan existing users.
+     * @param transactionManager Transaction manager for the read-only scan.
+     * @param indexPath          Directory for the index files; empty keeps the index on the heap.
+     * @param refreshInterval    Longest time before a write becomes visible to searches.
+     * @param retryInitialDelay  Wait before retrying a failed build; doubled after every further failure.
+     * @param retryMaxDelay      Longest wait between build attempts.
+     * @param meterRegistry      Registry for the indexed document gauge.
+     * @throws IOException if the index directory cannot be opened.
+     */
+    public UserSearchIndex(UserRepository userRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${userapi.search.index-path:}") String indexPath,
+                           @Value("${userapi.search.refresh-interval:1s}") Duration refreshInterval,
+                           @Value("${userapi.search.build-retry-initial-delay:1s}") Duration retryInitialDelay,
+                           @Value("${userapi.search.build-retry-max-delay:1m}") Duration retryMaxDelay,
+                           MeterRegistry meterRegistry) throws IOException {
+        this.userRepository = userRepository;
+        this.retryInitialDelay = retryInitialDelay;
+        this.retryMaxDelay = retryMaxDelay;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(writer, null);
+        double staleSeconds = refreshInterval.toMillis() / 1000.0;
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, staleSeconds, staleSeconds / 10);
+        this.reopenThread.setName("user-search-refresh");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+
+        Gauge.builder("users.search.index.documents", writer, w -> w.getDocStats().numDocs)
+                .description("Users in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Searches users by prefix and, for queries of at least {@value #MIN_SUBSTRING_LENGTH} characters,
+     * by substring of username, email, first name or last name, ignoring case.
+     *
+     * @param query The text to look for.
+     * @param page  The zero-based page number.
+     * @param size  The page size.
+     * @return The matching users on the requested page, best match first, and the total hit count.
+     * @throws ServiceUnavailableException if the index has not finished its initial build.
+     */
+    public UserSearchPageDTO search(String query, int page, int size) {
+        if (!ready) {
+            throw new ServiceUnavailableException("The search index is still being built");
+        }
+        IndexSearcher searcher = acquire();
+        try {
+            int offset = page * size;
+            TopFieldDocs top = searcher.search(toQuery(query.trim().toLowerCase(Locale.ROOT)), offset + size, RANKING, true);
+            List<UserDTO> users = new ArrayList<>(size);
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                users.add(toUserDTO(searcher.storedFields().document(top.scoreDocs[i].doc)));
+            }
+            UserSearchPageDTO result = new UserSearchPageDTO();
+            result.setUsers(users);
+            result.setTotalHits(top.totalHits.value);
+            result.setPage(page);
+            result.setSize(size);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Adds or replaces a user in the index. Call after the write has committed.
+     *
+     * @param user The stored user.
+     */
+    public void index(UserDTO user) {
+        write(user.getId(), () -> addOrReplace(user));
+        writeListeners.forEach(listener -> listener.accept(user.getId()));
+    }
+
+    /**
+     * Removes a user from the index. Call after the delete has committed.
+     *
+     * @param id The id of the deleted user.
+     */
+    public void remove(Long id) {
+        write(id, () -> writer.deleteDocuments(new Term(ID, id.toString())));
+        writeListeners.forEach(listener -> listener.accept(id));
+    }
+
+    /**
+     * Brings one user up to date from the database, such as after another node wrote it: the user is
+     * indexed if it exists and removed otherwise. Write listeners are not told.
+     *
+     * @param id The id of the user to reload.
+     */
+    public void reload(Long id) {
+        Optional<UserDTO> user = userRepository.findUserDTOById(id);
+        if (user.isPresent()) {
+            write(id, () -> addOrReplace(user.get()));
+        } else {
+            write(id, () -> writer.deleteDocuments(new Term(ID, id.toString())));
+        }
+    }
+
+    /**
+     * Registers a callback that is given the id of every user indexed or removed through this node's writes.
+     *
+     * @param listener The callback; runs on the writing thread, possibly inside its transaction.
+     */
+    public void addWriteListener(LongConsumer listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Builds the index in the background once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::buildUntilReady, "user-search-build");
+        thread.setDaemon(true);
+        buildThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Builds the index, retrying failed attempts with exponential backoff until one succeeds
+     * or the calling thread is interrupted.
+     */
+    public void buildUntilReady() {
+        long delay = retryInitialDelay.toMillis();
+        while (!build()) {
+            log.warn("Retrying the user search index build in {} ms", delay);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, retryMaxDelay.toMillis());
+        }
+    }
+
+    /**
+     * Builds the index from a streamed scan of the users table.
+     * Users written or deleted while the scan runs are skipped, since the live write already
+     * brought the index up to date and the scanned row may be older.
+     *
+     * @return Whether the build succeeded.
+     */
+    public boolean build() {
+        touchedDuringBuild = ConcurrentHashMap.newKeySet();
+        try {
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UserDTO> users = userRepository.streamUserDTOsOrderedById()) {
+                    users.forEach(user -> {
+                        synchronized (buildLock) {
+                            if (!touchedDuringBuild.contains(user.getId())) {
+                                try {
+                                    addOrReplace(user);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            }
+                        }
+                    });
+                }
+            });
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            lastBuildFailure = null;
+            log.info("Built user search index with {} users in {} ms",
+                    writer.getDocStats().numDocs, (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            lastBuildFailure = e;
+            failedBuilds++;
+            log.error("Failed to build user search index", e);
+            return false;
+        } finally {
+            touchedDuringBuild = null;
+        }
+    }
+
+    /**
+     * @return Whether the initial build has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Why the last build attempt failed, or null if it has not failed.
+     */
+    public Exception getLastBuildFailure() {
+        return lastBuildFailure;
+    }
+
+    /**
+     * @return The number of build attempts that failed.
+     */
+    public int getFailedBuilds() {
+        return failedBuilds;
+    }
+
+    /**
+     * @return The number of users in the index.
+     */
+    public int getDocumentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * Makes every write so far visible to searches without waiting for the refresh interval.
+     */
+    void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        Thread thread = buildThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void write(Long id, IndexWrite write) {
+        try {
+            Set<Long> touched = touchedDuringBuild;
+            if (touched == null) {
+                write.run();
+                return;
+            }
+            synchronized (buildLock) {
+                touched.add(id);
+                write.run();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void addOrReplace(UserDTO user) throws IOException {
+        writer.updateDocument(new Term(ID, user.getId().toString()), toDocument(user));
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release index searcher", e);
+        }
+    }
+
+    private static Query toQuery(String query) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        FIELD_WEIGHTS.forEach((field, weight) -> {
+            builder.add(scored(new TermQuery(new Term(field, query)), EXACT_SCORE * weight), BooleanClause.Occur.SHOULD);
+            builder.add(scored(new PrefixQuery(new Term(field, query)), PREFIX_SCORE * weight), BooleanClause.Occur.SHOULD);
+            if (query.length() >= MIN_SUBSTRING_LENGTH) {
+                builder.add(scored(substring(field + NGRAM_SUFFIX, query), SUBSTRING_SCORE * weight), BooleanClause.Occur.SHOULD);
+            }
+        });
+        return builder.build();
+    }
+
+    /** The query's trigrams at consecutive positions, which match only where they occur contiguously. */
+    private static Query substring(String field, String query) {
+        PhraseQuery.Builder phrase = new PhraseQuery.Builder();
+        for (int i = 0; i + MIN_SUBSTRING_LENGTH <= query.length(); i++) {
+            phrase.add(new Term(field, query.substring(i, i + MIN_SUBSTRING_LENGTH)), i);
+        }
+        return phrase.build();
+    }
+
+    /** Scores a match with a fixed value, so ranking does not depend on term statistics. */
+    private static Query scored(Query query, float score) {
+        return new BoostQuery(new ConstantScoreQuery(query), score);
+    }
+
+    private static Document toDocument(UserDTO user) {
+        Document document = new Document();
+        document.add(new StringField(ID, user.getId().toString(), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_ORDER, user.getId()));
+        addField(document, "username", user.getUsername());
+        addField(document, "email", user.getEmail());
+        addField(document, "firstName", user.getFirstName());
+        addField(document, "lastName", user.getLastName());
+        return document;
+    }
+
+    private static void addField(Document document, String field, String value) {
+        if (value == null) {
+            return;
+        }
+        document.add(new StringField(field, value.toLowerCase(Locale.ROOT), Field.Store.NO));
+        document.add(new TextField(field + NGRAM_SUFFIX, value, Field.Store.NO));
+        document.add(new StoredField(STORED_PREFIX + field, value));
+    }
+
+    private static UserDTO toUserDTO(Document document) {
+        return new UserDTO(Long.valueOf(document.get(ID)), document.get(STORED_PREFIX + "username"),
+                document.get(STORED_PREFIX + "email"), document.get(STORED_PREFIX + "firstName"),
+                document.get(STORED_PREFIX + "lastName"));
+    }
+
+    /** Trigrams for the substring fields; every other field is indexed as given. */
+    private static Analyzer analyzer() {
+        Analyzer trigrams = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(MIN_SUBSTRING_LENGTH, MIN_SUBSTRING_LENGTH);
+                return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+            }
+        };
+        Map<String, Analyzer> perField = new HashMap<>();
+        FIELD_WEIGHTS.keySet().forEach(field -> perField.put(field + NGRAM_SUFFIX, trigrams));
+        return new PerFieldAnalyzerWrapper(new KeywordAnalyzer(), perField);
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+}
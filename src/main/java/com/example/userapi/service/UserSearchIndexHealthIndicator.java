@@ -0,0 +1,32 @@
+package com.example.userapi.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the state of the user search index under {@code /actuator/health} as {@code userSearchIndex}:
+ * UP once built, UNKNOWN while the first build runs, and DOWN with the last error while failed builds
+ * are being retried.
+ */
+@Component
+public class UserSearchIndexHealthIndicator implements HealthIndicator {
+
+    private final UserSearchIndex searchIndex;
+
+    public UserSearchIndexHealthIndicator(UserSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Override
+    public Health health() {
+        if (searchIndex.isReady()) {
+            return Health.up().withDetail("documents", searchIndex.getDocumentCount()).build();
+        }
+        Exception failure = searchIndex.getLastBuildFailure();
+        if (failure != null) {
+            return Health.down(failure).withDetail("failedBuilds", searchIndex.getFailedBuilds()).build();
+        }
+        return Health.unknown().withDetail("state", "building").build();
+    }
+}
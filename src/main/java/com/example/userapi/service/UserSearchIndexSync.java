@@ -0,0 +1,89 @@
+package com.example.userapi.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps the search indexes of several nodes in step over Redis pub/sub.
+ * The id of every user this node indexes or removes is broadcast as {@code <node> <id>} once the
+ * write has committed; the other nodes reload that user from the database, so messages that arrive
+ * out of order still leave the index matching the table. Redis pub/sub does not redeliver, so a node
+ * that misses a message keeps the old entry until it restarts and rebuilds its index.
+ */
+@Slf4j
+public class UserSearchIndexSync implements MessageListener {
+
+    private final UserSearchIndex searchIndex;
+    private final RedisTemplate<String, byte[]> redis;
+    private final String nodeId;
+    @Getter
+    private final String channel;
+
+    /**
+     * Creates the synchronizer and registers it for this node's index writes.
+     *
+     * @param searchIndex This node's search index.
+     * @param redis       Template used to publish the messages.
+     * @param nodeId      Id of this node, so it can ignore its own messages.
+     * @param channel     Channel on which index writes are broadcast.
+     */
+    public UserSearchIndexSync(UserSearchIndex searchIndex, RedisTemplate<String, byte[]> redis, String nodeId, String channel) {
+        this.searchIndex = searchIndex;
+        this.redis = redis;
+        this.nodeId = nodeId;
+        this.channel = channel;
+        searchIndex.addWriteListener(this::written);
+    }
+
+    /**
+     * Reloads a user written by another node.
+     *
+     * @param message The message, {@code <node> <id>}.
+     * @param pattern The pattern the channel matched, unused.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 2);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            Long id = Long.valueOf(parts[1]);
+            // One reload at a time, so a reload that read an older row cannot finish after a newer one
+            synchronized (this) {
+                searchIndex.reload(id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reload user {} into the search index", parts[1], e);
+        }
+    }
+
+    private void written(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(id);
+            return;
+        }
+        // Other nodes read the user back, so they must not hear of it before it is visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(id);
+            }
+        });
+    }
+
+    private void publish(long id) {
+        try {
+            redis.convertAndSend(channel, (nodeId + " " + id).getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast search index write of user {}", id, e);
+        }
+    }
+}
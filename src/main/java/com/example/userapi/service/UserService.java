@@ -1,125 +1,342 @@
 package com.example.userapi.service;
 
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.config.MetricsConfig;
 import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserPatchDTO;
 import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.exception.ResourceNotFoundException;
 import com.example.userapi.model.User;
+import com.example.userapi.repository.UserIdentity;
 import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing user-related business logic.
  * Provides functionality for creating, reading, updating, and deleting users.
  */
 @Service
+@Timed(value = MetricsConfig.USER_SERVICE_TIMER, description = "User service calls")
 @Slf4j
 public class UserService {
 
+    /** Page size used when the client does not ask for one. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Upper bound on the page size a client may request. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Search page size used when the client does not ask for one. */
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+
+    /** Upper bound on the search page size. */
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /** Last search page a client may request; deeper pages should narrow the query instead. */
+    public static final int MAX_SEARCH_PAGE = 99;
+
+    /** Upper bound on the length of a search query. */
+    public static final int MAX_SEARCH_QUERY_LENGTH = 100;
+
+    /** Upper bound on the number of ids in one multi-get request. */
+    public static final int MAX_LOOKUP_IDS = 500;
+
     @Autowired
     public UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserExistenceFilter existenceFilter;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserBatchLoader batchLoader;
+
+    @Value("${" + UserPurgeJob.SOFT_DELETE_PROPERTY + ":false}")
+    private boolean softDelete;
+
+    /**
+     * Retrieves one keyset page of users ordered by id.
+     *
+     * @param after The id of the last user seen by the client, or null to start from the beginning.
+     * @param limit The requested page size; clamped to [1, {@value #MAX_PAGE_SIZE}].
+     * @return UserPageDTO holding the users on the page and the cursor for the next one.
+     */
+    public UserPageDTO getUsersPage(Long after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long cursor = after != null ? after : 0L;
+        log.debug("Fetching users after id {} with limit {}", cursor, pageSize);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<UserDTO> users = userRepository.findUserDTOsByIdGreaterThan(cursor, Limit.of(pageSize + 1));
+        boolean hasNext = users.size() > pageSize;
+        if (hasNext) {
+            users = users.subList(0, pageSize);
+        }
+
+        UserPageDTO page = new UserPageDTO();
+        page.setUsers(users);
+        page.setNextCursor(hasNext ? users.get(users.size() - 1).getId() : null);
+        return page;
+    }
 
     /**
-     * Retrieves a list of all users.
+     * Streams every user, in ascending id order, to the given consumer.
+     * Rows are read through a database cursor as UserDTO projections, so no entities
+     * accumulate in the persistence context and memory use does not grow with the table.
      *
-     * @return List of UserDTO representing all users.
+     * @param consumer Callback invoked once per user.
      */
-    public List<UserDTO> getAllUsers() {
-        log.debug("Fetching all users");
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserDTO> consumer) {
+        log.debug("Streaming all users");
+        try (Stream<UserDTO> users = userRepository.streamUserDTOsOrderedById()) {
+            users.forEach(consumer);
+        }
     }
 
     /**
      * Retrieves a user by their unique ID.
+     * Results are served from the users near-cache. Concurrent lookups of the same id share one call,
+     * so a burst of misses, including misses for an id that does not exist, runs one query.
      *
      * @param id The ID of the user to retrieve.
      * @return UserDTO representing the user.
      * @throws ResourceNotFoundException if no user is found with the given ID.
      */
+    @Coalesced
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id", sync = true)
     public UserDTO getUserById(Long id) throws ResourceNotFoundException {
         log.debug("Fetching user with id {}", id);
-        User user = userRepository.findById(id)
+        return userRepository.findUserDTOById(id)
                 .orElseThrow(() -> {
                     log.error("User not found with id {}", id);
                     return new ResourceNotFoundException("User not found with id " + id);
                 });
-        return convertToDTO(user);
+    }
+
+    /**
+     * Retrieves many users by id. Cached users are returned from the cache; the rest are loaded through
+     * the batch loader, which merges the ids of concurrent requests into one query per batch window.
+     *
+     * @param ids The ids of the users to retrieve.
+     * @return The users found, by id; ids without a user are absent.
+     */
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> ids) {
+        log.debug("Fetching {} users by id", ids.size());
+        return batchLoader.loadAll(ids);
+    }
+
+    /**
+     * Searches users by prefix or substring of username, email, first name or last name.
+     *
+     * @param query The text to look for, matched case-insensitively.
+     * @param page  The zero-based page number.
+     * @param size  The page size.
+     * @return UserSearchPageDTO holding the ranked matches on the page and the total hit count.
+     */
+    public UserSearchPageDTO searchUsers(String query, int page, int size) {
+        log.debug("Searching users for '{}' page {} size {}", query, page, size);
+        return searchIndex.search(query, page, size);
     }
 
     /**
      * Creates a new user in the system.
+     * Username and email availability is checked with a single query before the password is hashed;
+     * the unique constraints remain the source of truth for concurrent signups that pass the check.
      *
      * @param userRequest Data for the user to be created.
      * @return UserDTO representing the created user.
+     * @throws DuplicateResourceException if the username or email is already in use.
      */
-    public UserDTO createUser(UserRequestDTO userRequest) {
+    public UserDTO createUser(UserRequestDTO userRequest) throws DuplicateResourceException {
+        ensureAvailable(userRequest.getUsername(), userRequest.getEmail());
+
         User user = new User();
 
         user.setUsername(userRequest.getUsername());
-        user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(userRequest.getPassword()));
         user.setEmail(userRequest.getEmail());
         user.setFirstName(userRequest.getFirstName());
         user.setLastName(userRequest.getLastName());
 
         log.debug("Before saving user: id = {}", user.getId());
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateResourceException(e);
+        }
 
+        existenceFilter.recordUser(savedUser.getUsername(), savedUser.getEmail());
         log.debug("After saving user: id = {}", savedUser.getId());
 
-        return convertToDTO(savedUser);
+        UserDTO created = convertToDTO(savedUser);
+        searchIndex.index(created);
+        return created;
     }
 
     /**
-     * Updates an existing user's information.
+     * Updates an existing user's information and evicts the cached copy. Evicting rather than putting the
+     * result means two concurrent updates that finish out of order cannot leave the older version cached.
+     * When an expected version is given, the update only applies if the user still has that version,
+     * both when it is read and when it is written, so concurrent editors cannot overwrite each other.
      *
-     * @param id          The ID of the user to update.
-     * @param userRequest Updated user data.
+     * @param id              The ID of the user to update.
+     * @param userRequest     Updated user data.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
      * @return UserDTO representing the updated user.
      * @throws ResourceNotFoundException if no user is found with the given ID.
+     * @throws DuplicateResourceException if the new email is already used by another user.
+     * @throws PreconditionFailedException if the user no longer has the expected version.
      */
-    public UserDTO updateUser(Long id, UserRequestDTO userRequest) throws ResourceNotFoundException {
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public UserDTO updateUser(Long id, UserRequestDTO userRequest, Long expectedVersion)
+            throws ResourceNotFoundException, DuplicateResourceException, PreconditionFailedException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.error("User not found with id {}", id);
                     return new ResourceNotFoundException("User not found with id " + id);
                 });
+        // Checked before hashing, so a stale request costs one query
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            log.warn("User {} is at version {}, not {}", id, user.getVersion(), expectedVersion);
+            throw new PreconditionFailedException("User " + id + " has been modified");
+        }
 
         user.setEmail(userRequest.getEmail());
         user.setFirstName(userRequest.getFirstName());
         user.setLastName(userRequest.getLastName());
 
         if (userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            user.setPassword(passwordHashingService.encodeReplacing(userRequest.getPassword(), user.getPassword()));
+        }
+
+        User updatedUser;
+        try {
+            updatedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateResourceException(e);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            log.warn("User {} was modified while being updated", id);
+            throw new PreconditionFailedException("User " + id + " has been modified");
+        }
+        existenceFilter.recordUser(updatedUser.getUsername(), updatedUser.getEmail());
+        UserDTO updated = convertToDTO(updatedUser);
+        searchIndex.index(updated);
+        return updated;
+    }
+
+    /**
+     * Applies a partial update to a user with a single UPDATE statement and evicts the cached copy.
+     * Only the supplied fields change, and the password is hashed only when a new one is supplied.
+     * The user is not read before the write: the expected version, when given, is part of the
+     * statement's WHERE clause, and the affected-row count tells whether it matched.
+     * The updated user is read back by primary key in the same transaction on purpose: JPQL has no
+     * RETURNING clause, and a native one would only exist on PostgreSQL, so every profile pays the
+     * same indexed SELECT instead of keeping two versions of the statement.
+     *
+     * @param id              The ID of the user to update.
+     * @param patch           The fields to change; null fields are left as they are.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
+     * @return UserDTO representing the updated user.
+     * @throws ResourceNotFoundException if no user is found with the given ID.
+     * @throws DuplicateResourceException if the new email is already used by another user.
+     * @throws PreconditionFailedException if the user no longer has the expected version.
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public UserDTO patchUser(Long id, UserPatchDTO patch, Long expectedVersion)
+            throws ResourceNotFoundException, DuplicateResourceException, PreconditionFailedException {
+        // Hashed before the transaction starts, so no connection is held while the hash is computed
+        String hash = patch.getPassword() != null ? passwordHashingService.encode(patch.getPassword()) : null;
+
+        Optional<UserDTO> patched;
+        try {
+            patched = new TransactionTemplate(transactionManager).execute(status -> {
+                int updated = expectedVersion != null
+                        ? userRepository.patchIfVersion(id, expectedVersion, patch.getEmail(), patch.getFirstName(), patch.getLastName(), hash)
+                        : userRepository.patch(id, patch.getEmail(), patch.getFirstName(), patch.getLastName(), hash);
+                return updated == 0 ? Optional.<UserDTO>empty() : userRepository.findUserDTOById(id);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw toDuplicateResourceException(e);
         }
 
-        User updatedUser = userRepository.save(user);
-        return convertToDTO(updatedUser);
+        if (patched.isEmpty()) {
+            // Only a rejected write pays for telling a stale version from a missing user
+            if (expectedVersion != null && userRepository.existsById(id)) {
+                log.warn("User {} is not at version {}", id, expectedVersion);
+                throw new PreconditionFailedException("User " + id + " has been modified");
+            }
+            log.error("User not found with id {}", id);
+            throw new ResourceNotFoundException("User not found with id " + id);
+        }
+
+        UserDTO updated = patched.get();
+        existenceFilter.recordUser(updated.getUsername(), updated.getEmail());
+        searchIndex.index(updated);
+        return updated;
     }
 
     /**
-     * Deletes a user by their unique ID.
+     * Deletes a user by their unique ID with a single statement and evicts it from the cache.
+     * The affected-row count tells whether the user existed, so nothing is read first.
+     * In soft-delete mode the user is only stamped as deleted, and removed later by the purge job.
      *
      * @param id The ID of the user to delete.
      * @throws ResourceNotFoundException if no user is found with the given ID.
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public void deleteUser(Long id) throws ResourceNotFoundException {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("User not found with id {}", id);
-                    return new ResourceNotFoundException("User not found with id " + id);
-                });
-        userRepository.delete(user);
+        int deleted = softDelete
+                ? userRepository.softDeleteById(id, Instant.now())
+                : userRepository.deleteUserById(id);
+        if (deleted == 0) {
+            log.error("User not found with id {}", id);
+            throw new ResourceNotFoundException("User not found with id " + id);
+        }
+        if (!softDelete) {
+            // A soft-deleted user's username and email stay taken until the purge job removes it
+            existenceFilter.recordDeletion();
+        }
+        searchIndex.remove(id);
         log.debug("Deleted user with id {}", id);
     }
 
@@ -129,7 +346,7 @@ public class UserService {
      * @param user The User entity to convert.
      * @return UserDTO representation of the user.
      */
-    private UserDTO convertToDTO(User user) {
+    public static UserDTO convertToDTO(User user) {
         UserDTO userDTO = new UserDTO();
 
         userDTO.setId(user.getId());
@@ -137,16 +354,107 @@ public class UserService {
         userDTO.setEmail(user.getEmail());
         userDTO.setFirstName(user.getFirstName());
         userDTO.setLastName(user.getLastName());
+        userDTO.setVersion(user.getVersion());
 
         return userDTO;
     }
 
+    /**
+     * Checks in at most a single query that neither the username nor the email is taken.
+     * The query is skipped entirely when the existence filter rules out both values.
+     *
+     * @param username The username to check.
+     * @param email    The email to check.
+     * @throws DuplicateResourceException naming the first conflicting field, username before email.
+     */
+    private void ensureAvailable(String username, String email) throws DuplicateResourceException {
+        if (!existenceFilter.mightContainUsername(username) && !existenceFilter.mightContainEmail(email)) {
+            return;
+        }
+        List<UserIdentity> conflicts = userRepository.findByUsernameOrEmail(username, email);
+        existenceFilter.recordConfirmation(!conflicts.isEmpty());
+        if (conflicts.stream().anyMatch(identity -> identity.getUsername().equals(username))) {
+            log.warn("Username {} is already taken", username);
+            throw new DuplicateResourceException("username", "Username is already taken");
+        }
+        if (!conflicts.isEmpty()) {
+            log.warn("Email {} is already in use", email);
+            throw new DuplicateResourceException("email", "Email is already in use");
+        }
+    }
+
+    /**
+     * Maps a unique constraint violation raised by the database to the field it protects.
+     *
+     * @param e The exception raised while writing a user.
+     * @return A DuplicateResourceException naming the conflicting field.
+     * @throws DataIntegrityViolationException if the violation is not on the username or email constraint.
+     */
+    static DuplicateResourceException toDuplicateResourceException(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                DuplicateResourceException duplicate = duplicateOf(violation.getConstraintName());
+                if (duplicate != null) {
+                    return duplicate;
+                }
+                break;
+            }
+        }
+        throw e;
+    }
+
+    /**
+     * Tells which field a violated unique constraint protects.
+     *
+     * @param constraint The constraint name, or any text quoting it, such as a driver's error message.
+     * @return A DuplicateResourceException naming the conflicting field, or null if neither the username
+     * nor the email constraint is named.
+     */
+    static DuplicateResourceException duplicateOf(String constraint) {
+        String name = constraint.toLowerCase(Locale.ROOT);
+        if (name.contains(User.USERNAME_CONSTRAINT)) {
+            log.warn("Username conflict detected on insert");
+            return new DuplicateResourceException("username", "Username is already taken");
+        }
+        if (name.contains(User.EMAIL_CONSTRAINT)) {
+            log.warn("Email conflict detected on write");
+            return new DuplicateResourceException("email", "Email is already in use");
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a username is taken, answering from the existence filter when it rules the username out.
+     * Concurrent checks of the same username share one query.
+     *
+     * @param username The username to check.
+     * @return True if a user with the username exists, false otherwise.
+     */
+    @Coalesced
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        if (!existenceFilter.mightContainUsername(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        existenceFilter.recordConfirmation(exists);
+        return exists;
     }
 
+    /**
+     * Checks whether an email is in use, answering from the existence filter when it rules the email out.
+     * Concurrent checks of the same email share one query.
+     *
+     * @param email The email to check.
+     * @return True if a user with the email exists, false otherwise.
+     */
+    @Coalesced
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        if (!existenceFilter.mightContainEmail(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        existenceFilter.recordConfirmation(exists);
+        return exists;
     }
 
 }
\ No newline at end of file
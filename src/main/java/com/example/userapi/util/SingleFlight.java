@@ -0,0 +1,81 @@
+package com.example.userapi.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent calls for the same key into one.
+ * The first caller for a key runs the call on its own thread; callers that arrive while it is in flight
+ * wait for it and receive the same result, or the same exception. Nothing is kept once the call completes,
+ * so a later caller runs the call again.
+ *
+ * @param <K> The key type; keys are compared with equals.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * A call that may throw anything, such as a checked business exception or a proxied method invocation.
+     *
+     * @param <V> The result type.
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws Throwable;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Runs the call, or joins the call already in flight for the key.
+     *
+     * @param key  The key identifying equal calls.
+     * @param call The call to run if none is in flight.
+     * @return The result of the call.
+     * @throws Throwable what the call threw, or InterruptedException if interrupted while waiting.
+     */
+    public V execute(K key, Call<V> call) throws Throwable {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        try {
+            V value = call.call();
+            flight.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Returns how many callers received the result of a call started by another caller.
+     *
+     * @return The number of coalesced calls.
+     */
+    public long sharedCalls() {
+        return shared.sum();
+    }
+
+    /**
+     * Returns the number of calls currently in flight.
+     *
+     * @return The number of distinct keys being executed.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
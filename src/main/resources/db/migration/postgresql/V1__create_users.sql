@@ -0,0 +1,24 @@
+-- Users table, matching the User entity.
+-- Ids come from a sequence incremented by the entity's allocation size (50), so Hibernate's pooled
+-- optimizer hands out 50 ids per round trip and can batch inserts.
+create sequence users_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint       not null,
+    username   varchar(50)  not null,
+    password   varchar(255) not null,
+    email      varchar(255) not null,
+    first_name varchar(255),
+    last_name  varchar(255),
+    version    bigint       not null default 0,
+    deleted_at timestamp(6) with time zone,
+    constraint users_pkey primary key (id)
+);
+
+-- Explicit unique indexes back the username/email lookups and the availability checks on signup.
+-- Their names are the constraint names the application maps violations back to.
+create unique index uk_users_username on users (username);
+create unique index uk_users_email on users (email);
+
+-- Only soft-deleted rows are indexed, for the purge job; live rows cost nothing to maintain here.
+create index idx_users_deleted_at on users (deleted_at) where deleted_at is not null;
@@ -0,0 +1,113 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.UserApiApplication;
+import com.example.userapi.model.User;
+import com.example.userapi.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Shared helpers for JMH benchmarks that need a running application context.
+ */
+final class BenchmarkSupport {
+
+    private static final List<String> QUIET_LOGGING = List.of(
+            "spring.jpa.show-sql=false",
+            "logging.level.root=WARN",
+            "logging.level.com.example.userapi=WARN",
+            "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Boots the application without a web server and with SQL and debug logging switched off,
+     * so log output does not distort the measurements.
+     *
+     * @param properties Additional Spring properties in {@code key=value} form.
+     * @return The started application context; callers must close it in their tear-down.
+     */
+    static ConfigurableApplicationContext startContext(String... properties) {
+        return start(WebApplicationType.NONE, true, properties);
+    }
+
+    /**
+     * Boots the application with an embedded web server on a random port and with SQL and debug
+     * logging switched off. The port is available as {@code local.server.port}; the gRPC server
+     * also listens on a random port.
+     *
+     * @param properties Additional Spring properties in {@code key=value} form.
+     * @return The started application context; callers must close it in their tear-down.
+     */
+    static ConfigurableApplicationContext startWebContext(String... properties) {
+        List<String> withPort = new ArrayList<>(List.of(properties));
+        withPort.add("server.port=0");
+        withPort.add("userapi.grpc.port=0");
+        return start(null, true, withPort.toArray(String[]::new));
+    }
+
+    /**
+     * Boots the application with an embedded web server on a random port, keeping the logging
+     * configuration of application.properties and the active profiles. The gRPC server also listens
+     * on a random port.
+     *
+     * @param properties Additional Spring properties in {@code key=value} form.
+     * @return The started application context; callers must close it in their tear-down.
+     */
+    static ConfigurableApplicationContext startWebContextWithLogging(String... properties) {
+        List<String> withPort = new ArrayList<>(List.of(properties));
+        withPort.add("server.port=0");
+        withPort.add("userapi.grpc.port=0");
+        return start(null, false, withPort.toArray(String[]::new));
+    }
+
+    /**
+     * @param type       The web application type, or null to let the active profiles decide.
+     * @param quiet      Whether to switch SQL and debug logging off.
+     * @param properties Properties in {@code key=value} form; later entries override earlier ones.
+     *                   They are passed as command-line arguments so that they also override
+     *                   application.properties, which default properties would not.
+     */
+    private static ConfigurableApplicationContext start(WebApplicationType type, boolean quiet, String... properties) {
+        Map<String, String> merged = new LinkedHashMap<>();
+        Stream.concat(quiet ? QUIET_LOGGING.stream() : Stream.empty(), Stream.of(properties))
+                .map(property -> property.split("=", 2))
+                .forEach(pair -> merged.put(pair[0], pair[1]));
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(UserApiApplication.class);
+        if (type != null) {
+            builder.web(type);
+        }
+        return builder.run(merged.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new));
+    }
+
+    /**
+     * Inserts {@code count} users with pre-encoded passwords.
+     *
+     * @param repository The repository to write through.
+     * @param count      The number of users to insert.
+     * @return The ids of the inserted users.
+     */
+    static long[] seedUsers(UserRepository repository, int count) {
+        List<User> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuuJm1sJ6yDgZ0pZ5bY2aQe2fTgH3sQy2");
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            batch.add(user);
+        }
+        return repository.saveAll(batch).stream().mapToLong(User::getId).toArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.grpc.GetUserRequest;
+import com.example.userapi.grpc.GetUsersRequest;
+import com.example.userapi.grpc.UsersGrpc;
+import com.example.userapi.repository.UserRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares internal user lookups over JSON/HTTP 1.1 ({@code GET /api/users/{id}} and {@code ?ids=}) with the
+ * same lookups over gRPC/Protobuf, against one running application.
+ * Latencies are sampled, so JMH reports p99 next to the mean. Payload sizes are printed at start-up:
+ * the response body bytes of each call, without HTTP or HTTP/2 framing.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=GrpcVsJsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class GrpcVsJsonBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int BATCH = 50;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private ManagedChannel channel;
+    private UsersGrpc.UsersBlockingStub stub;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkSupport.startWebContext();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        ids = BenchmarkSupport.seedUsers(context.getBean(UserRepository.class), USERS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        channel = ManagedChannelBuilder.forAddress("localhost", context.getBean(Server.class).getPort()).usePlaintext().build();
+        stub = UsersGrpc.newBlockingStub(channel);
+        printPayloadSizes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public int getByIdJson() throws IOException, InterruptedException {
+        return get("/" + randomId());
+    }
+
+    @Benchmark
+    public int getByIdGrpc() {
+        return stub.getUser(GetUserRequest.newBuilder().setId(randomId()).build()).getSerializedSize();
+    }
+
+    @Benchmark
+    public int getManyJson() throws IOException, InterruptedException {
+        return get("?ids=" + randomIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    @Benchmark
+    public int getManyGrpc() {
+        return stub.getUsers(GetUsersRequest.newBuilder().addAllIds(randomIds()).build()).getSerializedSize();
+    }
+
+    private void printPayloadSizes() throws IOException, InterruptedException {
+        long id = ids[0];
+        List<Long> batch = Arrays.stream(ids, 0, BATCH).boxed().toList();
+        String joined = batch.stream().map(String::valueOf).collect(Collectors.joining(","));
+        System.out.printf("Payload bytes, one user: JSON %d, Protobuf %d%n",
+                get("/" + id),
+                stub.getUser(GetUserRequest.newBuilder().setId(id).build()).getSerializedSize());
+        System.out.printf("Payload bytes, %d users: JSON %d, Protobuf %d%n", BATCH,
+                get("?ids=" + joined),
+                stub.getUsers(GetUsersRequest.newBuilder().addAllIds(batch).build()).getSerializedSize());
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private List<Long> randomIds() {
+        return ThreadLocalRandom.current().longs(BATCH, 0, ids.length).mapToObj(i -> ids[(int) i]).toList();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of logging: the default configuration (synchronous console
+ * appender, show-sql, DEBUG application logging and TRACE bind parameters) against the prod
+ * profile (async JSON appender, INFO logging and sampled SQL).
+ * Console output goes to target/logging-benchmark-&lt;config&gt;.log, so the cost includes a real
+ * write to a file rather than to JMH's output pipe.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=LoggingOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"default", "prod"})
+    public String config;
+
+    private PrintStream originalOut;
+    private PrintStream logFile;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path log = Path.of("target", "logging-benchmark-" + config + ".log");
+        Files.createDirectories(log.getParent());
+        originalOut = System.out;
+        logFile = new PrintStream(new FileOutputStream(log.toFile()), false);
+        System.setOut(logFile);
+        context = "default".equals(config)
+                ? BenchmarkSupport.startWebContextWithLogging()
+                : BenchmarkSupport.startWebContextWithLogging("spring.profiles.active=" + config);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        ids = BenchmarkSupport.seedUsers(context.getBean(UserRepository.class), USERS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(originalOut);
+        logFile.close();
+    }
+
+    /**
+     * A keyset page read: one request line, one SQL statement and its bind parameters.
+     */
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        return get("?limit=" + PAGE_SIZE + "&after=" + randomId());
+    }
+
+    /**
+     * A single-user read, mostly served by the near-cache, so logging is most of the work.
+     */
+    @Benchmark
+    public int getById() throws IOException, InterruptedException {
+        return get("/" + randomId());
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
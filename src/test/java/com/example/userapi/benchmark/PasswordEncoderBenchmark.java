@@ -0,0 +1,51 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.config.PasswordEncoderFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures password encode throughput per algorithm and cost setting, using one thread
+ * per available processor so the numbers reflect the capacity of the hashing pool.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=PasswordEncoderBenchmark
+ * Add settings with e.g. -Djmh.args="-p setting=bcrypt:11,argon2:65536:3:1".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(Threads.MAX)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    /**
+     * The algorithm and its cost parameters, separated by colons:
+     * {@code bcrypt:<strength>}, {@code pbkdf2:<iterations>} or
+     * {@code argon2:<memoryKb>:<iterations>:<parallelism>}.
+     */
+    @Param({"bcrypt:10", "bcrypt:12", "pbkdf2:310000", "argon2:16384:2:1", "argon2:65536:3:1"})
+    public String setting;
+
+    private PasswordEncoder encoder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = setting.split(":");
+        encoder = switch (parts[0]) {
+            case PasswordEncoderFactory.BCRYPT -> PasswordEncoderFactory.bcrypt(Integer.parseInt(parts[1]));
+            case PasswordEncoderFactory.PBKDF2 -> PasswordEncoderFactory.pbkdf2(Integer.parseInt(parts[1]));
+            case PasswordEncoderFactory.ARGON2 -> PasswordEncoderFactory.argon2(
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            default -> throw new IllegalArgumentException("Unknown encoder setting " + setting);
+        };
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("benchmarkPassword");
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.config.ReactiveConfig;
+import com.example.userapi.config.TaskExecutionConfig;
+import com.example.userapi.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-tests the HTTP tier in each serving mode: Tomcat on platform threads, Tomcat on virtual
+ * threads, and the reactive WebFlux + R2DBC variant on Netty.
+ * Each JMH thread is one blocking client; throughput and the p99 of the sampled latencies are
+ * reported per mode. Raise the client count past Tomcat's 200 platform threads to see where
+ * the thread pool, rather than the connection pool, becomes the limit.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=ThreadingModeBenchmark -Djmh.args="-t 400"
+ * The virtual-threads mode needs Java 21+; on older JVMs add {@code -p mode=platform}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(256)
+public class ThreadingModeBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"platform", TaskExecutionConfig.VIRTUAL_THREADS_PROFILE, ReactiveConfig.REACTIVE_PROFILE})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "platform".equals(mode)
+                ? BenchmarkSupport.startWebContext()
+                : BenchmarkSupport.startWebContext("spring.profiles.active=" + mode);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/users";
+        ids = BenchmarkSupport.seedUsers(context.getBean(UserRepository.class), USERS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * A keyset page read, which always goes to the database.
+     */
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        return get("?limit=" + PAGE_SIZE + "&after=" + randomId());
+    }
+
+    /**
+     * A single-user read, mostly served by the near-cache.
+     */
+    @Benchmark
+    public int getById() throws IOException, InterruptedException {
+        return get("/" + randomId());
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
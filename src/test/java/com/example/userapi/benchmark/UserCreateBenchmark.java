@@ -0,0 +1,62 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures UserService.createUser end to end with the configured password encoder: the
+ * availability check, hashing on the bounded pool, the insert and the DTO mapping.
+ * Hashing dominates, so compare the result with PasswordEncoderBenchmark to see the
+ * overhead of everything else.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserCreateBenchmark
+ * Override the cost with e.g. -Djmh.args="-p bcryptStrength=10,12 -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UserCreateBenchmark {
+
+    /** The BCrypt cost factor; 10 is the production default. */
+    @Param({"10"})
+    public int bcryptStrength;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext(
+                "userapi.password.encoder=bcrypt",
+                "userapi.password.bcrypt.strength=" + bcryptStrength);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO createUser() throws DuplicateResourceException {
+        long n = sequence.incrementAndGet();
+        UserRequestDTO request = new UserRequestDTO();
+        request.setUsername("bench" + n);
+        request.setPassword("benchmarkPassword");
+        request.setEmail("bench" + n + "@example.com");
+        request.setFirstName("First" + n);
+        request.setLastName("Last" + n);
+        return userService.createUser(request);
+    }
+}
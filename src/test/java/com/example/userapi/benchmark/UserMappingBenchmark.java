@@ -0,0 +1,75 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.model.User;
+import com.example.userapi.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU and allocation cost of the response path that runs after the database:
+ * entity-to-DTO mapping and JSON serialization of a page of users.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserMappingBenchmark
+ * The default {@code -prof gc} option reports the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same builder Spring Boot uses for the MVC message converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        user = new User();
+        ReflectionTestUtils.setField(user, "id", 42L);
+        user.setUsername("user42");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuJm1sJ6yDgZ0pZ5bY2aQe2fTgH3sQy2");
+        user.setEmail("user42@example.com");
+        user.setFirstName("First42");
+        user.setLastName("Last42");
+    }
+
+    @Benchmark
+    public UserDTO convertToDTO() {
+        return UserService.convertToDTO(user);
+    }
+
+    @Benchmark
+    public byte[] serializeList(UserList list) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(list.users);
+    }
+
+    /** The list to serialize, kept separate so only serializeList is run once per size. */
+    @State(Scope.Benchmark)
+    public static class UserList {
+
+        /** Number of users in the list; 100 is the default page size. */
+        @Param({"1", "100", "1000"})
+        public int size;
+
+        private List<UserDTO> users;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            users = new ArrayList<>(size);
+            for (long i = 0; i < size; i++) {
+                users.add(new UserDTO(i, "user" + i, "user" + i + "@example.com", "First" + i, "Last" + i));
+            }
+        }
+    }
+}
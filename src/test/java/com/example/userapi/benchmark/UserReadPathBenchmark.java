@@ -0,0 +1,87 @@
+package com.example.userapi.benchmark;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entity-hydrating read path against the UserDTO projection queries.
+ * Both sides of each pair run the same query shape (by id, or one keyset page without a count),
+ * so the difference is the cost of hydrating entities.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserReadPathBenchmark
+ * The default {@code -prof gc} option reports the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ids = BenchmarkSupport.seedUsers(userRepository, USERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO getByIdEntity() {
+        long id = randomId();
+        return transactionTemplate.execute(status -> userRepository.findById(id).map(UserService::convertToDTO).orElseThrow());
+    }
+
+    @Benchmark
+    public UserDTO getByIdProjection() {
+        long id = randomId();
+        return transactionTemplate.execute(status -> userRepository.findUserDTOById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<UserDTO> listPageEntity() {
+        return transactionTemplate.execute(status -> userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PAGE_SIZE))
+                .stream()
+                .map(UserService::convertToDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> listPageProjection() {
+        return transactionTemplate.execute(status -> userRepository.findUserDTOsByIdGreaterThan(0L, Limit.of(PAGE_SIZE)));
+    }
+
+    @Benchmark
+    public Boolean existsByUsername() {
+        String username = "user" + ThreadLocalRandom.current().nextInt(ids.length);
+        return transactionTemplate.execute(status -> userRepository.existsByUsername(username));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
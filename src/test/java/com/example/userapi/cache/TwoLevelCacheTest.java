@@ -0,0 +1,243 @@
+package com.example.userapi.cache;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.example.userapi.config.DistributedCacheConfig.redisTemplate;
+import static com.example.userapi.config.DistributedCacheConfig.userSerializer;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two cache managers, standing in for two nodes, against one embedded Redis server.
+ */
+public class TwoLevelCacheTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private final List<RedisMessageListenerContainer> listeners = new ArrayList<>();
+    private Cache nodeA;
+    private Cache nodeB;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = connectionFactory(port);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate(connectionFactory).execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        nodeA = node(connectionFactory, true).getCache(CacheConfig.USERS_CACHE);
+        nodeB = node(connectionFactory, true).getCache(CacheConfig.USERS_CACHE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listeners.forEach(RedisMessageListenerContainer::stop);
+    }
+
+    /**
+     * Verifies that a node reads another node's load from Redis, including the version, and that an
+     * update on one node removes the other node's local copy.
+     */
+    @Test
+    void updateOnOneNodeInvalidatesTheOtherNodesLocalCopy() {
+        assertEquals("alice", nodeA.get(1L, () -> user(1L, "alice", 0L)).getUsername());
+
+        UserDTO shared = nodeB.get(1L, () -> fail("should be read from the shared cache"));
+        assertEquals("alice", shared.getUsername());
+        assertEquals(0L, shared.getVersion());
+
+        nodeA.put(1L, user(1L, "alice2", 1L));
+        Cache localB = ((TwoLevelCache) nodeB).getLocal();
+        await(() -> localB.get("1") == null);
+
+        UserDTO updated = nodeB.get(1L, () -> fail("should be read from the shared cache"));
+        assertEquals("alice2", updated.getUsername());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(1, ((TwoLevelCache) nodeB).getInvalidationsReceived());
+        assertEquals(0, ((TwoLevelCache) nodeA).getInvalidationsReceived());
+    }
+
+    /**
+     * Verifies that a multi-get returns the keys held on either level and copies shared hits to the local level.
+     */
+    @Test
+    void getAllReadsMissingKeysFromTheSharedCache() {
+        nodeA.put(1L, user(1L, "alice", 0L));
+        nodeA.put(2L, user(2L, "bob", 0L));
+        TwoLevelCache cacheB = (TwoLevelCache) nodeB;
+        cacheB.getLocal().put("1", user(1L, "alice", 0L));
+
+        Map<Long, Object> values = cacheB.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Set.of(1L, 2L), values.keySet());
+        assertEquals("bob", ((UserDTO) values.get(2L)).getUsername());
+        assertNotNull(cacheB.getLocal().get("2"));
+        assertEquals(0, cacheB.getSharedErrors());
+    }
+
+    /**
+     * Verifies that concurrent misses for one key on both nodes run a single load.
+     */
+    @Test
+    void concurrentMissesOnAllNodesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Cache node = i % 2 == 0 ? nodeA : nodeB;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return node.get(2L, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200);
+                        return user(2L, "bob", 0L);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<UserDTO> result : results) {
+                assertEquals("bob", result.get(5, TimeUnit.SECONDS).getUsername());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Verifies that a load that read the database before an eviction cannot put the old value back
+     * into the shared cache.
+     */
+    @Test
+    void loadRacingAnEvictionDoesNotRepopulateTheSharedCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UserDTO> staleLoad = executor.submit(() -> nodeB.get(3L, () -> {
+                loading.countDown();
+                evicted.await();
+                return user(3L, "carol", 0L);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            nodeA.evict(3L);
+            evicted.countDown();
+            assertEquals("carol", staleLoad.get(5, TimeUnit.SECONDS).getUsername());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AtomicInteger loads = new AtomicInteger();
+        UserDTO reloaded = nodeA.get(3L, () -> {
+            loads.incrementAndGet();
+            return user(3L, "carol2", 1L);
+        });
+        assertEquals("carol2", reloaded.getUsername());
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Verifies that without Redis the cache still loads, writes and evicts through its local level.
+     */
+    @Test
+    void unavailableRedisFallsBackToTheLoader() throws Exception {
+        LettuceConnectionFactory unreachable = connectionFactory(freePort());
+        try {
+            TwoLevelCache cache = (TwoLevelCache) node(unreachable, false).getCache(CacheConfig.USERS_CACHE);
+
+            assertEquals("dave", cache.get(4L, () -> user(4L, "dave", 0L)).getUsername());
+            assertEquals("dave", cache.<UserDTO>get(4L, () -> fail("should be read from the local cache")).getUsername());
+            cache.put(4L, user(4L, "dave2", 1L));
+            cache.evict(4L);
+
+            assertNull(cache.get(4L));
+            assertTrue(cache.getSharedErrors() > 0);
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private TwoLevelCacheManager node(LettuceConnectionFactory factory, boolean listen) {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(new CaffeineCacheManager(CacheConfig.USERS_CACHE),
+                redisTemplate(factory), userSerializer(new ObjectMapper()), "test:", "test:invalidation",
+                Duration.ofMinutes(1), Duration.ofSeconds(2));
+        if (listen) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(factory);
+            container.addMessageListener(manager, new ChannelTopic(manager.getChannel()));
+            container.afterPropertiesSet();
+            container.start();
+            listeners.add(container);
+        }
+        return manager;
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static UserDTO user(Long id, String username, Long version) {
+        return new UserDTO(id, username, username + "@example.com", null, null, version);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
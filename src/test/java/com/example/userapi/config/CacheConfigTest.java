@@ -0,0 +1,67 @@
+package com.example.userapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheConfigTest {
+
+    /**
+     * Verifies that in async mode cache loads run on the configured executor rather than
+     * inside the caller's map computation, and that the spec still applies.
+     */
+    @Test
+    void useAsyncMode_LoadsOnExecutor() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cache-loader"));
+        try {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+            CacheConfig.useAsyncMode(cacheManager, "maximumSize=10,recordStats", executor);
+            Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+            AtomicReference<String> loaderThread = new AtomicReference<>();
+
+            String value = cache.get(1L, () -> {
+                loaderThread.set(Thread.currentThread().getName());
+                return "alice";
+            });
+
+            assertEquals("alice", value);
+            assertEquals("cache-loader", loaderThread.get());
+            assertEquals("alice", cache.get(1L, () -> "reloaded"));
+            assertNotNull(((CaffeineCache) cache).getAsyncCache());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Verifies that a failing load surfaces as Spring's ValueRetrievalException, which the caching
+     * interceptor unwraps to the original exception, and that nothing is cached.
+     */
+    @Test
+    void useAsyncMode_PropagatesLoaderFailure() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+            CacheConfig.useAsyncMode(cacheManager, null, executor);
+            Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+            Exception failure = new Exception("User not found with id 1");
+
+            Cache.ValueRetrievalException thrown = assertThrows(Cache.ValueRetrievalException.class,
+                    () -> cache.get(1L, () -> {
+                        throw failure;
+                    }));
+
+            assertSame(failure, thrown.getCause());
+            assertNull(cache.get(1L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
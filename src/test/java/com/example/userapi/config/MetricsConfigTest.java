@@ -0,0 +1,65 @@
+package com.example.userapi.config;
+
+import com.example.userapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that every layer publishes its meters through the Prometheus endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@TestPropertySource(properties = "userapi.password.bcrypt.strength=4")
+public class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void prometheusEndpoint_ExposesEndpointServiceRepositoryHashingPoolAndHibernateMeters() throws Exception {
+        userRepository.deleteAll();
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"metrics\",\"password\":\"secret123\",\"email\":\"metrics@example.com\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        mockMvc.perform(post("/graphql").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"{ users(first: 1) { edges { node { username } } } }\"}"))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "http_server_requests_seconds_bucket{");
+        assertContains(scrape, "status=\"404\"");
+        assertContains(scrape, "users_service_seconds_bucket{");
+        assertContains(scrape, "exception=\"ResourceNotFoundException\"");
+        assertContains(scrape, "method=\"createUser\"");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket{");
+        assertContains(scrape, "password_hashing_duration_seconds_bucket{");
+        assertContains(scrape, "hikaricp_connections_pending{");
+        assertContains(scrape, "hikaricp_connections_acquire_seconds_bucket{");
+        assertContains(scrape, "hibernate_statements_total{");
+        assertContains(scrape, "graphql_request_seconds_bucket{");
+        assertContains(scrape, "graphql_field_name=\"users\"");
+    }
+
+    private static void assertContains(String scrape, String expected) {
+        assertTrue(scrape.contains(expected), () -> "Prometheus scrape is missing " + expected);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderFactoryTest {
+
+    /**
+     * Creates a delegating encoder with deliberately cheap settings to keep the tests fast.
+     */
+    private static PasswordEncoder cheapEncoder(String idForEncode, int bcryptStrength) {
+        return PasswordEncoderFactory.delegating(idForEncode, bcryptStrength, 1000, 1024, 1, 1);
+    }
+
+    /**
+     * Verifies that each supported algorithm produces id-prefixed hashes that verify.
+     *
+     * @param id The encoder id under test.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {PasswordEncoderFactory.BCRYPT, PasswordEncoderFactory.PBKDF2, PasswordEncoderFactory.ARGON2})
+    void encodeAndMatchTest(String id) {
+        PasswordEncoder encoder = cheapEncoder(id, 4);
+        String encoded = encoder.encode("plainPassword");
+
+        assertTrue(encoded.startsWith("{" + id + "}"));
+        assertTrue(encoder.matches("plainPassword", encoded));
+        assertFalse(encoder.matches("wrongPassword", encoded));
+    }
+
+    /**
+     * Verifies that unprefixed BCrypt hashes written before the encoder was configurable still verify
+     * and are flagged for upgrade.
+     */
+    @Test
+    void legacyBcryptHashTest() {
+        String legacy = new BCryptPasswordEncoder(4).encode("plainPassword");
+        PasswordEncoder encoder = cheapEncoder(PasswordEncoderFactory.BCRYPT, 4);
+
+        assertTrue(encoder.matches("plainPassword", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    /**
+     * Verifies that hashes below the configured cost, or from another algorithm, are flagged for upgrade.
+     */
+    @Test
+    void upgradeEncodingTest() {
+        String weak = cheapEncoder(PasswordEncoderFactory.BCRYPT, 4).encode("plainPassword");
+        String pbkdf2 = cheapEncoder(PasswordEncoderFactory.PBKDF2, 4).encode("plainPassword");
+        PasswordEncoder target = cheapEncoder(PasswordEncoderFactory.BCRYPT, 5);
+
+        assertTrue(target.upgradeEncoding(weak));
+        assertTrue(target.upgradeEncoding(pbkdf2));
+        assertFalse(target.upgradeEncoding(target.encode("plainPassword")));
+    }
+
+    /**
+     * Verifies that an unknown encoder id is rejected at startup.
+     */
+    @Test
+    void unsupportedEncoderTest() {
+        assertThrows(IllegalArgumentException.class, () -> cheapEncoder("md5", 4));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.config.ReactiveConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive profile end to end: Netty, WebFlux, R2DBC and the shared H2 schema.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(ReactiveConfig.REACTIVE_PROFILE)
+@TestPropertySource(properties = "userapi.password.bcrypt.strength=4")
+public class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createUser_ThenReadUpdateAndDelete() {
+        UserDTO created = create("alice", "alice@example.com")
+                .expectStatus().isOk()
+                .expectBody(UserDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(created.getId());
+        assertTrue(userRepository.findByUsername("alice").orElseThrow().getPassword().startsWith("{bcrypt}"));
+
+        webTestClient.get().uri("/api/users/{id}", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.username").isEqualTo("alice");
+
+        webTestClient.put().uri("/api/users/{id}", created.getId())
+                .bodyValue(Map.of("username", "alice", "password", "newSecret1", "email", "alice@new.example.com",
+                        "lastName", "Smith"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("alice@new.example.com")
+                .jsonPath("$.lastName").isEqualTo("Smith");
+
+        webTestClient.delete().uri("/api/users/{id}", created.getId()).exchange().expectStatus().isOk();
+        webTestClient.delete().uri("/api/users/{id}", created.getId()).exchange().expectStatus().isNotFound();
+        webTestClient.get().uri("/api/users/{id}", created.getId()).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("User not found with id " + created.getId());
+    }
+
+    @Test
+    void updateAndDelete_EvictTheCachedUser() throws Exception {
+        UserDTO created = create("dave", "dave@example.com")
+                .expectStatus().isOk()
+                .expectBody(UserDTO.class)
+                .returnResult().getResponseBody();
+        // Cached through the blocking service, which gRPC and GraphQL read from
+        assertEquals("dave@example.com", userService.getUserById(created.getId()).getEmail());
+
+        webTestClient.put().uri("/api/users/{id}", created.getId())
+                .bodyValue(Map.of("username", "dave", "password", "secret123", "email", "dave@new.example.com"))
+                .exchange()
+                .expectStatus().isOk();
+        assertEquals("dave@new.example.com", userService.getUserById(created.getId()).getEmail());
+
+        webTestClient.delete().uri("/api/users/{id}", created.getId()).exchange().expectStatus().isOk();
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(created.getId()));
+    }
+
+    @Test
+    void patchUser_HonoursETagsAndIfMatch() {
+        UserDTO created = create("erin", "erin@example.com")
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(UserDTO.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.get().uri("/api/users/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        webTestClient.patch().uri("/api/users/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Map.of("lastName", "Jones"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("erin@example.com")
+                .jsonPath("$.lastName").isEqualTo("Jones");
+        assertTrue(userRepository.findByUsername("erin").orElseThrow().getPassword().startsWith("{bcrypt}"));
+
+        webTestClient.patch().uri("/api/users/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Map.of("lastName", "Stale"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri("/api/users/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Map.of("username", "erin", "password", "secret123", "email", "erin@example.com", "lastName", "Stale"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        assertEquals("Jones", userRepository.findByUsername("erin").orElseThrow().getLastName());
+
+        webTestClient.patch().uri("/api/users/{id}", created.getId() + 1000)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .bodyValue(Map.of("lastName", "Nobody"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void createUser_DuplicateUsername_ReturnsConflict() {
+        create("bob", "bob@example.com").expectStatus().isOk();
+
+        create("bob", "other@example.com")
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.field").isEqualTo("username");
+    }
+
+    @Test
+    void createUser_InvalidRequest_ReturnsBadRequest() {
+        webTestClient.post().uri("/api/users")
+                .bodyValue(Map.of("username", "carol", "password", "short", "email", "carol@example.com"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed: {password=Password should be at least 6 characters}");
+    }
+
+    @Test
+    void getAllUsers_ReturnsKeysetPagesAndStream() {
+        create("u1", "u1@example.com").expectStatus().isOk();
+        create("u2", "u2@example.com").expectStatus().isOk();
+
+        UserDTO first = webTestClient.get().uri("/api/users?limit=1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(UserController.NEXT_CURSOR_HEADER)
+                .expectBodyList(UserDTO.class).hasSize(1)
+                .returnResult().getResponseBody().get(0);
+        assertEquals("u1", first.getUsername());
+
+        webTestClient.get().uri("/api/users?limit=1&after=" + first.getId()).exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(UserController.NEXT_CURSOR_HEADER)
+                .expectBodyList(UserDTO.class).hasSize(1);
+
+        List<UserDTO> streamed = webTestClient.get().uri("/api/users/stream")
+                .accept(MediaType.parseMediaType(UserController.APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(UserDTO.class).getResponseBody().collectList().block();
+        assertEquals(List.of("u1", "u2"), streamed.stream().map(UserDTO::getUsername).toList());
+    }
+
+    private WebTestClient.ResponseSpec create(String username, String email) {
+        return webTestClient.post().uri("/api/users")
+                .bodyValue(Map.of("username", username, "password", "secret123", "email", email))
+                .exchange();
+    }
+}
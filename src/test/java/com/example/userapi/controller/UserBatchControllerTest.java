@@ -0,0 +1,75 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.exception.GlobalExceptionHandler;
+import com.example.userapi.service.UserBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserBatchControllerTest {
+
+    @Mock
+    private UserBatchService userBatchService;
+
+    @InjectMocks
+    private UserBatchController userBatchController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userBatchController).setControllerAdvice(new GlobalExceptionHandler()).build();
+    }
+
+    @Test
+    void createUsers_ReturnsPerItemResults() throws Exception {
+        BatchItemResultDTO created = new BatchItemResultDTO();
+        created.setIndex(0);
+        created.setStatus(201);
+        created.setId(7L);
+        BatchItemResultDTO conflict = new BatchItemResultDTO();
+        conflict.setIndex(1);
+        conflict.setStatus(409);
+        conflict.setMessage("Username is already taken");
+        conflict.setField("username");
+        when(userBatchService.createUsers(anyList())).thenReturn(List.of(created, conflict));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"username\":\"a\"},{\"username\":\"b\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(409))
+                .andExpect(jsonPath("$[1].field").value("username"));
+    }
+
+    @Test
+    void deleteUsers_RejectsEmptyBatch() throws Exception {
+        mockMvc.perform(delete("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed: {ids=must not be empty}"));
+
+        verifyNoInteractions(userBatchService);
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.userapi.controller;
 
 import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserPatchDTO;
 import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.DuplicateResourceException;
 import com.example.userapi.exception.GlobalExceptionHandler;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.exception.ResourceNotFoundException;
 import com.example.userapi.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,19 +16,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,11 +52,13 @@ public class UserControllerTest
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private UserController userController;
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
 
     private UserDTO userDTO;
     private UserRequestDTO userRequest;
@@ -56,7 +73,6 @@ public class UserControllerTest
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(userController).setControllerAdvice(new GlobalExceptionHandler()).build();
-        objectMapper = new ObjectMapper();
 
         userDTO = new UserDTO();
         userDTO.setId(1L);
@@ -84,17 +100,127 @@ public class UserControllerTest
     }
 
     /**
-     * Tests the getAllUsers endpoint to ensure it retrieves all users correctly.
+     * Tests the getAllUsers endpoint to ensure it retrieves the first page of users correctly.
      *
      * - Verifies the returned JSON matches the expected structure and values.
+     * - Verifies no next-page headers are sent on the last page.
      * @throws Exception If an error occurs during request execution.
      */
     @Test
     void getAllUsersTest() throws Exception {
-        when(userService.getAllUsers()).thenReturn(Collections.singletonList(userDTO));
+        UserPageDTO page = new UserPageDTO();
+        page.setUsers(Collections.singletonList(userDTO));
+        when(userService.getUsersPage(null, UserService.DEFAULT_PAGE_SIZE)).thenReturn(page);
+
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].username").value("testuser"));
+                .andExpect(jsonPath("$[0].username").value("testuser"))
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER));
+    }
+
+    /**
+     * Tests the getAllUsers endpoint when another page exists.
+     *
+     * - Verifies the cursor is returned in the next-cursor and Link headers.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getAllUsersTest_NextPage() throws Exception {
+        UserPageDTO page = new UserPageDTO();
+        page.setUsers(Collections.singletonList(userDTO));
+        page.setNextCursor(1L);
+        when(userService.getUsersPage(0L, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, "1"))
+                .andExpect(header().string("Link", "<http://localhost/api/users?after=1&limit=1>; rel=\"next\""));
+    }
+
+    /**
+     * Tests the searchUsers endpoint.
+     *
+     * - Verifies the ranked page and total hit count are returned with the default page size.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void searchUsersTest() throws Exception {
+        UserSearchPageDTO result = new UserSearchPageDTO();
+        result.setUsers(Collections.singletonList(userDTO));
+        result.setTotalHits(1);
+        result.setSize(UserService.DEFAULT_SEARCH_PAGE_SIZE);
+        when(userService.searchUsers("test", 0, UserService.DEFAULT_SEARCH_PAGE_SIZE)).thenReturn(result);
+
+        mockMvc.perform(get("/api/users/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(1))
+                .andExpect(jsonPath("$.users[0].username").value(userDTO.getUsername()));
+    }
+
+    /**
+     * Tests the searchUsers endpoint with a page size above the limit.
+     *
+     * - Verifies the request is rejected with 400 before reaching the service.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void searchUsersTest_PageSizeTooLarge() throws Exception {
+        mockMvc.perform(get("/api/users/search").param("q", "test").param("size", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed: {size=must be less than or equal to 100}"));
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    /**
+     * Tests the checkAvailability endpoint.
+     *
+     * - Verifies each given value is answered from the service's existence checks.
+     * - Verifies a value that was not given is neither checked nor reported.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void checkAvailabilityTest() throws Exception {
+        when(userService.usernameExists("testuser")).thenReturn(true);
+        when(userService.emailExists("free@example.com")).thenReturn(false);
+
+        mockMvc.perform(get("/api/users/availability").param("username", "testuser").param("email", "free@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.usernameAvailable").value(false))
+                .andExpect(jsonPath("$.emailAvailable").value(true));
+
+        mockMvc.perform(get("/api/users/availability").param("username", "testuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+        Mockito.verify(userService, Mockito.times(1)).emailExists(anyString());
+    }
+
+    /**
+     * Tests the streamUsers endpoint.
+     *
+     * - Verifies each user is written as one line of newline-delimited JSON.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamUsersTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDTO> consumer = invocation.getArgument(0);
+            consumer.accept(userDTO);
+            consumer.accept(userDTO);
+            return null;
+        }).when(userService).streamUsers(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expectedLine = objectMapper.writeValueAsString(userDTO);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(expectedLine + "\n" + expectedLine + "\n"));
     }
 
     /**
@@ -112,6 +238,62 @@ public class UserControllerTest
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
 
+    /**
+     * Tests the getUserById endpoint with a sparse fieldset.
+     *
+     * - Verifies only the requested properties are serialized and the ETag names the fields.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getUserByIdTest_Fields() throws Exception {
+        userDTO.setVersion(3L);
+        when(userService.getUserById(1L)).thenReturn(userDTO);
+
+        mockMvc.perform(get("/api/users/1").param("fields", "email,username"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3;username+email\""))
+                .andExpect(jsonPath("$.username").value("testuser"))
+                .andExpect(jsonPath("$.email").value("test@example.com"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.firstName").doesNotExist());
+    }
+
+    /**
+     * Tests the getUserById endpoint with an unknown field name.
+     *
+     * - Ensures a 400 BAD_REQUEST response is returned naming the parameter.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getUserByIdTest_UnknownField() throws Exception {
+        mockMvc.perform(get("/api/users/1").param("fields", "username,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("fields"));
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    /**
+     * Tests the getUserById endpoint with an If-None-Match header matching the current version.
+     *
+     * - Ensures a 304 NOT_MODIFIED response is returned with the ETag and no body.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getUserByIdTest_NotModified() throws Exception {
+        userDTO.setVersion(3L);
+        when(userService.getUserById(1L)).thenReturn(userDTO);
+
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.username").value("testuser"));
+    }
+
     /**
      * Tests the getUserById endpoint for an invalid user ID.
      *
@@ -127,16 +309,58 @@ public class UserControllerTest
                 .andExpect(jsonPath("$.message").value("User not found"));
     }
 
+    /**
+     * Tests the multi-get endpoint with found, missing and repeated ids.
+     *
+     * - Verifies one result per requested id, in request order, each with its own status.
+     * - Verifies the requested fields apply to every returned user.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getUsersByIdsTest() throws Exception {
+        when(userService.getUsersByIds(List.of(1L, 2L, 1L))).thenReturn(Map.of(1L, userDTO));
+
+        mockMvc.perform(get("/api/users").param("ids", "1,2,1").param("fields", "username"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].user.username").value("testuser"))
+                .andExpect(jsonPath("$[0].user.email").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].message").value("User not found with id 2"))
+                .andExpect(jsonPath("$[1].user").doesNotExist())
+                .andExpect(jsonPath("$[2].status").value(200));
+    }
+
+    /**
+     * Tests the multi-get endpoint with more ids than one request may ask for.
+     *
+     * - Verifies the request is rejected with 400 before reaching the service.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void getUsersByIdsTest_TooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, UserService.MAX_LOOKUP_IDS + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/users").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
     /**
      * Tests the createUser endpoint for a valid request.
      *
      * - Verifies the returned UserDTO contains the expected details.
+     * - Verifies the controller does not issue separate existence checks.
      * @throws Exception If an error occurs during request execution.
      */
     @Test
     void createUserTest_Success() throws Exception {
-        when(userService.usernameExists("newuser")).thenReturn(false);
-        when(userService.emailExists("new@example.com")).thenReturn(false);
         when(userService.createUser(any(UserRequestDTO.class))).thenReturn(userDTO);
 
         mockMvc.perform(post("/api/users")
@@ -144,41 +368,46 @@ public class UserControllerTest
                         .content(objectMapper.writeValueAsString(userRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("testuser"));
+        Mockito.verify(userService, Mockito.never()).usernameExists(anyString());
+        Mockito.verify(userService, Mockito.never()).emailExists(anyString());
     }
 
     /**
      * Tests the createUser endpoint when the username is already taken.
      *
-     * - Ensures a 400 BAD_REQUEST response is returned with the correct error message.
+     * - Ensures a 409 CONFLICT response is returned naming the conflicting field.
      * @throws Exception If an error occurs during request execution.
      */
     @Test
     void createUserTest_UsernameTaken() throws Exception {
-        when(userService.usernameExists("newuser")).thenReturn(true);
+        when(userService.createUser(any(UserRequestDTO.class)))
+                .thenThrow(new DuplicateResourceException("username", "Username is already taken"));
 
         mockMvc.perform(post("/api/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userRequest)))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Username is already taken"));
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Username is already taken"))
+                .andExpect(jsonPath("$.field").value("username"));
     }
 
     /**
      * Tests the createUser endpoint when the email is already in use.
      *
-     * - Ensures a 400 BAD_REQUEST response is returned with the correct error message.
+     * - Ensures a 409 CONFLICT response is returned naming the conflicting field.
      * @throws Exception If an error occurs during request execution.
      */
     @Test
     void createUserTest_EmailTaken() throws Exception {
-        when(userService.usernameExists("newuser")).thenReturn(false);
-        when(userService.emailExists("new@example.com")).thenReturn(true);
+        when(userService.createUser(any(UserRequestDTO.class)))
+                .thenThrow(new DuplicateResourceException("email", "Email is already in use"));
 
         mockMvc.perform(post("/api/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userRequest)))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string("Email is already in use"));
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email is already in use"))
+                .andExpect(jsonPath("$.field").value("email"));
     }
 
     /**
@@ -189,7 +418,7 @@ public class UserControllerTest
      */
     @Test
     void updateUserTest_Success() throws Exception {
-        when(userService.updateUser(eq(1L), any(UserRequestDTO.class))).thenReturn(userDTO);
+        when(userService.updateUser(eq(1L), any(UserRequestDTO.class), isNull())).thenReturn(userDTO);
 
         mockMvc.perform(put("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -198,6 +427,85 @@ public class UserControllerTest
                 .andExpect(jsonPath("$.username").value("testuser"));
     }
 
+    /**
+     * Tests the updateUser endpoint with an If-Match header.
+     *
+     * - Verifies the version named by the ETag is passed on and the new ETag is returned.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void updateUserTest_IfMatch() throws Exception {
+        userDTO.setVersion(4L);
+        when(userService.updateUser(eq(1L), any(UserRequestDTO.class), eq(3L))).thenReturn(userDTO);
+
+        mockMvc.perform(put("/api/users/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    /**
+     * Tests the updateUser endpoint when the If-Match header is stale or cannot match.
+     *
+     * - Ensures a 412 PRECONDITION_FAILED response is returned.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void updateUserTest_PreconditionFailed() throws Exception {
+        when(userService.updateUser(eq(1L), any(UserRequestDTO.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("User 1 has been modified"));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("User 1 has been modified"));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    /**
+     * Tests the patchUser endpoint with a partial body and an If-Match header.
+     *
+     * - Verifies the body may omit the username and password and the new ETag is returned.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void patchUserTest_Success() throws Exception {
+        userDTO.setVersion(4L);
+        when(userService.patchUser(eq(1L), any(UserPatchDTO.class), eq(3L))).thenReturn(userDTO);
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Test\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.firstName").value("Test"));
+    }
+
+    /**
+     * Tests the patchUser endpoint with a password that is too short.
+     *
+     * - Ensures a 400 BAD_REQUEST response is returned and the service is not called.
+     * @throws Exception If an error occurs during request execution.
+     */
+    @Test
+    void patchUserTest_InvalidPassword() throws Exception {
+        mockMvc.perform(patch("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"123\"}"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(userService);
+    }
+
     /**
      * Tests the updateUser endpoint for an invalid user ID.
      *
@@ -206,7 +514,7 @@ public class UserControllerTest
      */
     @Test
     void updateUserTest_NotFound() throws Exception {
-        when(userService.updateUser(eq(2L), any(UserRequestDTO.class))).thenThrow(new ResourceNotFoundException("User not found"));
+        when(userService.updateUser(eq(2L), any(UserRequestDTO.class), isNull())).thenThrow(new ResourceNotFoundException("User not found"));
 
         mockMvc.perform(put("/api/users/2")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,220 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.repository.UserRepository;
+import com.example.userapi.service.UserService;
+import graphql.introspection.IntrospectionQuery;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GraphQL requests through {@code /graphql} against the embedded database.
+ */
+@SpringBootTest
+@AutoConfigureHttpGraphQlTester
+@TestPropertySource(properties = "userapi.password.bcrypt.strength=4")
+public class UserGraphQlControllerTest {
+
+    @Autowired
+    private HttpGraphQlTester graphQlTester;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    /**
+     * Verifies that every user requested by id in one request, across fields, is loaded with one query.
+     */
+    @Test
+    void usersRequestedByIdAreLoadedInOneQueryTest() {
+        Long alice = create("alice");
+        Long bob = create("bob");
+        Long carol = create("carol");
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        graphQlTester.document("""
+                        query($a: ID!, $b: ID!, $c: ID!) {
+                          first: user(id: $a) { username }
+                          second: user(id: $b) { username email }
+                          several: usersByIds(ids: [$c, $a, 404]) { username }
+                        }""")
+                .variable("a", alice).variable("b", bob).variable("c", carol)
+                .execute()
+                .errors().verify()
+                .path("first.username").entity(String.class).isEqualTo("alice")
+                .path("second.email").entity(String.class).isEqualTo("bob@example.com")
+                .path("several[*].username").entityList(String.class).containsExactly("carol", "alice")
+                .path("several[2]").valueIsNull();
+
+        assertEquals(1, statistics.getPrepareStatementCount() - statementsBefore);
+    }
+
+    /**
+     * Verifies that pages of the users connection follow each other through the end cursor.
+     */
+    @Test
+    void usersConnectionPagesByCursorTest() {
+        create("alice");
+        create("bob");
+        create("carol");
+        String document = """
+                query($after: String) {
+                  users(first: 2, after: $after) {
+                    edges { cursor node { username } }
+                    pageInfo { hasNextPage hasPreviousPage endCursor }
+                  }
+                }""";
+
+        String endCursor = graphQlTester.document(document)
+                .execute()
+                .path("users.edges[*].node.username").entityList(String.class).containsExactly("alice", "bob")
+                .path("users.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true)
+                .path("users.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(false)
+                .path("users.pageInfo.endCursor").entity(String.class).get();
+
+        graphQlTester.document(document).variable("after", endCursor)
+                .execute()
+                .path("users.edges[*].node.username").entityList(String.class).containsExactly("carol")
+                .path("users.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false)
+                .path("users.pageInfo.hasPreviousPage").entity(Boolean.class).isEqualTo(true);
+    }
+
+    /**
+     * Verifies that mutations create, update and delete users, and report failures as typed errors.
+     */
+    @Test
+    void mutationsTest() {
+        Long id = create("alice");
+
+        graphQlTester.document("""
+                        mutation($id: ID!) {
+                          updateUser(id: $id, input: { lastName: "Liddell" }, version: 0) { lastName version }
+                        }""")
+                .variable("id", id)
+                .execute()
+                .path("updateUser.lastName").entity(String.class).isEqualTo("Liddell")
+                .path("updateUser.version").entity(Long.class).isEqualTo(1L);
+
+        graphQlTester.document("""
+                        mutation($id: ID!) {
+                          updateUser(id: $id, input: { lastName: "Stale" }, version: 0) { lastName }
+                        }""")
+                .variable("id", id)
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST
+                        && ("User " + id + " has been modified").equals(error.getMessage()))
+                .verify();
+
+        graphQlTester.document("""
+                        mutation {
+                          createUser(input: { username: "alice", password: "secret123", email: "other@example.com" }) { id }
+                        }""")
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST
+                        && "username".equals(error.getExtensions().get("field")))
+                .verify();
+
+        graphQlTester.document("""
+                        mutation {
+                          createUser(input: { username: "bob", password: "secret123", email: "not-an-email" }) { id }
+                        }""")
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST
+                        && "Validation failed: {email=Email should be valid}".equals(error.getMessage()))
+                .verify();
+
+        graphQlTester.document("mutation($id: ID!) { deleteUser(id: $id) }")
+                .variable("id", id)
+                .execute()
+                .path("deleteUser").entity(Long.class).isEqualTo(id);
+        assertFalse(userRepository.existsById(id));
+
+        graphQlTester.document("mutation($id: ID!) { deleteUser(id: $id) }")
+                .variable("id", id)
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.NOT_FOUND)
+                .verify();
+
+        graphQlTester.document("mutation { deleteUser(id: \"alice\") }")
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+                .verify();
+    }
+
+    /**
+     * Verifies that a request for two full pages of users is rejected before any query runs,
+     * while one full page is accepted, and that at most 500 users can be requested by id.
+     */
+    @Test
+    void expensiveQueriesAreRejectedTest() {
+        String page = "edges { cursor node { id username email firstName lastName version } }";
+
+        graphQlTester.document("query { users(first: 500) { " + page + " } }")
+                .execute()
+                .errors().verify();
+
+        graphQlTester.document("query { a: users(first: 500) { " + page + " } b: users(first: 500, after: \"500\") { " + page + " } }")
+                .execute()
+                .errors().expect(error -> error.getMessage().contains("maximum query complexity exceeded"))
+                .verify()
+                .path("a").pathDoesNotExist();
+
+        graphQlTester.document("query($ids: [ID!]!) { usersByIds(ids: $ids) { id } }")
+                .variable("ids", LongStream.rangeClosed(1, UserService.MAX_LOOKUP_IDS + 1).boxed().toList())
+                .execute()
+                .errors().expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+                .verify();
+    }
+
+    /**
+     * Verifies that the schema can still be introspected under the depth and complexity limits.
+     */
+    @Test
+    void introspectionIsAllowedTest() {
+        graphQlTester.document(IntrospectionQuery.INTROSPECTION_QUERY)
+                .execute()
+                .errors().verify()
+                .path("__schema.queryType.name").entity(String.class).isEqualTo("Query");
+    }
+
+    private Long create(String username) {
+        UserDTO user = graphQlTester.document("""
+                        mutation($username: String!, $email: String!) {
+                          createUser(input: { username: $username, password: "secret123", email: $email }) { id username }
+                        }""")
+                .variable("username", username)
+                .variable("email", username + "@example.com")
+                .execute()
+                .path("createUser").entity(UserDTO.class).get();
+        return user.getId();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.grpc.CreateUserRequest;
+import com.example.userapi.grpc.GetUserRequest;
+import com.example.userapi.grpc.GetUsersRequest;
+import com.example.userapi.grpc.GetUsersResponse;
+import com.example.userapi.grpc.ListUsersRequest;
+import com.example.userapi.grpc.User;
+import com.example.userapi.grpc.UsersGrpc;
+import com.example.userapi.service.UserService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserGrpcServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private UserGrpcService userGrpcService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UsersGrpc.UsersBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(userGrpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = UsersGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    /**
+     * Tests GetUser for an existing user.
+     *
+     * - Verifies every field is copied, and absent optional fields are left unset.
+     */
+    @Test
+    void getUserTest_Success() throws Exception {
+        when(userService.getUserById(1L)).thenReturn(new UserDTO(1L, "testuser", "test@example.com", "Test", null, 2L));
+
+        User user = stub.getUser(GetUserRequest.newBuilder().setId(1L).build());
+
+        assertEquals(1L, user.getId());
+        assertEquals("testuser", user.getUsername());
+        assertEquals("test@example.com", user.getEmail());
+        assertEquals("Test", user.getFirstName());
+        assertEquals("", user.getLastName());
+        assertEquals(2L, user.getVersion());
+    }
+
+    /**
+     * Tests GetUser for a missing user.
+     *
+     * - Ensures the call fails with NOT_FOUND and the service's message.
+     */
+    @Test
+    void getUserTest_NotFound() throws Exception {
+        when(userService.getUserById(2L)).thenThrow(new ResourceNotFoundException("User not found with id 2"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getUser(GetUserRequest.newBuilder().setId(2L).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+        assertEquals("User not found with id 2", e.getStatus().getDescription());
+    }
+
+    /**
+     * Tests GetUsers with found, missing and repeated ids.
+     *
+     * - Verifies one result per requested id, in request order, with the user unset for the missing id.
+     */
+    @Test
+    void getUsersTest() {
+        when(userService.getUsersByIds(List.of(1L, 2L, 1L))).thenReturn(Map.of(1L, user(1L)));
+
+        GetUsersResponse response = stub.getUsers(GetUsersRequest.newBuilder().addAllIds(List.of(1L, 2L, 1L)).build());
+
+        assertEquals(List.of(1L, 2L, 1L), response.getResultsList().stream().map(result -> result.getId()).toList());
+        assertEquals("user1", response.getResults(0).getUser().getUsername());
+        assertFalse(response.getResults(1).hasUser());
+        assertTrue(response.getResults(2).hasUser());
+    }
+
+    /**
+     * Tests GetUsers with more ids than one call may ask for.
+     *
+     * - Ensures the call fails with INVALID_ARGUMENT before reaching the service.
+     */
+    @Test
+    void getUsersTest_TooManyIds() {
+        GetUsersRequest request = GetUsersRequest.newBuilder()
+                .addAllIds(LongStream.rangeClosed(1, UserService.MAX_LOOKUP_IDS + 1).boxed().toList())
+                .build();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.getUsers(request));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    /**
+     * Tests ListUsers across several keyset pages.
+     *
+     * - Verifies every user is streamed in order, with each page requested after the last id sent.
+     */
+    @Test
+    void listUsersTest() {
+        when(userService.getUsersPage(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            int size = invocation.getArgument(1);
+            List<UserDTO> users = LongStream.rangeClosed(after + 1, Math.min(after + size, 5)).mapToObj(UserGrpcServiceTest::user).toList();
+            UserPageDTO page = new UserPageDTO();
+            page.setUsers(users);
+            page.setNextCursor(after + size < 5 ? after + size : null);
+            return page;
+        });
+
+        List<Long> ids = new ArrayList<>();
+        stub.listUsers(ListUsersRequest.newBuilder().setAfterId(1L).setPageSize(2).build())
+                .forEachRemaining(user -> ids.add(user.getId()));
+
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids);
+        Mockito.verify(userService).getUsersPage(1L, 2);
+        Mockito.verify(userService).getUsersPage(3L, 2);
+    }
+
+    /**
+     * Tests CreateUser with a username that is already taken.
+     *
+     * - Ensures the call fails with ALREADY_EXISTS and names the field in the trailers.
+     */
+    @Test
+    void createUserTest_UsernameTaken() throws Exception {
+        when(userService.createUser(any(UserRequestDTO.class)))
+                .thenThrow(new DuplicateResourceException("username", "Username is already taken"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.createUser(CreateUserRequest.newBuilder()
+                .setUsername("testuser").setPassword("password123").setEmail("test@example.com").build()));
+
+        assertEquals(Status.Code.ALREADY_EXISTS, e.getStatus().getCode());
+        assertEquals("username", e.getTrailers().get(UserGrpcService.FIELD_TRAILER));
+    }
+
+    /**
+     * Tests CreateUser with an invalid email.
+     *
+     * - Ensures the call fails with INVALID_ARGUMENT before reaching the service.
+     */
+    @Test
+    void createUserTest_InvalidEmail() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.createUser(CreateUserRequest.newBuilder()
+                .setUsername("testuser").setPassword("password123").setEmail("not-an-email").build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertEquals("Validation failed: {email=Email should be valid}", e.getStatus().getDescription());
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    private static UserDTO user(long id) {
+        return new UserDTO(id, "user" + id, "user" + id + "@example.com", "User", String.valueOf(id), 0L);
+    }
+}
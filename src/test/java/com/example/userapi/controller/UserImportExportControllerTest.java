@@ -0,0 +1,86 @@
+package com.example.userapi.controller;
+
+import com.example.userapi.dto.ImportReportDTO;
+import com.example.userapi.exception.GlobalExceptionHandler;
+import com.example.userapi.service.UserDataFormat;
+import com.example.userapi.service.UserImportExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportExportControllerTest {
+
+    @Mock
+    private UserImportExportService userImportExportService;
+
+    @InjectMocks
+    private UserImportExportController userImportExportController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userImportExportController).setControllerAdvice(new GlobalExceptionHandler()).build();
+    }
+
+    @Test
+    void importUsers_Csv_ReturnsReport() throws Exception {
+        ImportReportDTO report = new ImportReportDTO();
+        report.setProcessed(2);
+        report.setCreated(2);
+        when(userImportExportService.importUsers(any(InputStream.class), eq(UserDataFormat.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("username,password,email\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(2))
+                .andExpect(jsonPath("$.created").value(2));
+    }
+
+    @Test
+    void exportUsers_Csv_StreamsAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("id,username\n1,alice\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(userImportExportService).exportUsers(any(OutputStream.class), eq(UserDataFormat.CSV));
+
+        MvcResult result = mockMvc.perform(get("/api/users/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username\n1,alice\n"));
+    }
+
+    @Test
+    void exportUsers_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("format"));
+    }
+}
@@ -44,6 +44,21 @@ public class GlobalExceptionHandlerTest {
         assertEquals(errorMessage, responseEntity.getBody().getMessage());
     }
 
+    /**
+     * Verifies that handleDuplicateResourceException correctly handles DuplicateResourceException.
+     *
+     * - Ensures the response contains a 409 status, the error message and the conflicting field.
+     */
+    @Test
+    public void testHandleDuplicateResourceException() {
+        DuplicateResourceException exception = new DuplicateResourceException("email", "Email is already in use");
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.handleDuplicateResourceException(exception, webRequest);
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT.value(), Objects.requireNonNull(responseEntity.getBody()).getStatus());
+        assertEquals("Email is already in use", responseEntity.getBody().getMessage());
+        assertEquals("email", responseEntity.getBody().getField());
+    }
+
     /**
      * Verifies that handleValidationExceptions correctly handles MethodArgumentNotValidException.
      *
@@ -62,6 +77,22 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Validation failed: {fieldName=defaultMessage}", responseEntity.getBody().getMessage());
     }
 
+    /**
+     * Verifies that handleServiceUnavailableException correctly handles ServiceUnavailableException.
+     *
+     * - Ensures the response contains a 503 status, a Retry-After header and the error message.
+     */
+    @Test
+    public void testHandleServiceUnavailableException() {
+        String errorMessage = "Password hashing capacity exhausted, please retry later";
+        ServiceUnavailableException exception = new ServiceUnavailableException(errorMessage);
+        ResponseEntity<ErrorResponse> responseEntity = globalExceptionHandler.handleServiceUnavailableException(exception, webRequest);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst("Retry-After"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), Objects.requireNonNull(responseEntity.getBody()).getStatus());
+        assertEquals(errorMessage, responseEntity.getBody().getMessage());
+    }
+
     /**
      * Verifies that handleAllExceptions correctly handles generic exceptions.
      *
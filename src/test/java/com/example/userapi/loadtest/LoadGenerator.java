@@ -0,0 +1,107 @@
+package com.example.userapi.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives a {@link LoadScenario} with blocking HTTP clients and records the latency of every
+ * successful response in a per-endpoint HdrHistogram. Responses with a 4xx or 5xx status and
+ * I/O failures are counted as errors and excluded from latency and throughput, so a server
+ * that fails fast cannot look faster than one that does the work.
+ */
+class LoadGenerator {
+
+    /** Highest trackable latency; anything slower is clamped rather than dropped. */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    /**
+     * Runs the scenario to completion.
+     *
+     * @param scenario The scenario to run.
+     * @return The recorded latencies and error counts per endpoint.
+     * @throws InterruptedException if interrupted while waiting for the clients.
+     */
+    ScenarioResult run(LoadScenario scenario) throws InterruptedException {
+        Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        scenario.operations().forEach(operation -> {
+            latencies.put(operation.endpoint(), new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            errors.put(operation.endpoint(), new LongAdder());
+        });
+
+        long recordFrom = System.nanoTime() + scenario.warmup().toNanos();
+        long stopAt = recordFrom + scenario.duration().toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(scenario.clients());
+        try {
+            for (int i = 0; i < scenario.clients(); i++) {
+                clients.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < stopAt) {
+                        LoadScenario.Operation operation = scenario.pick(random);
+                        boolean success = send(operation, random);
+                        long finished = System.nanoTime();
+                        if (now < recordFrom) {
+                            continue;
+                        }
+                        if (success) {
+                            latencies.get(operation.endpoint()).recordValue(Math.min(finished - now, MAX_LATENCY_NANOS));
+                        } else {
+                            errors.get(operation.endpoint()).increment();
+                        }
+                    }
+                });
+            }
+        } finally {
+            clients.shutdown();
+        }
+        if (!clients.awaitTermination(scenario.warmup().plus(scenario.duration()).toSeconds() + 60, TimeUnit.SECONDS)) {
+            clients.shutdownNow();
+            throw new IllegalStateException("Scenario " + scenario.name() + " did not finish in time");
+        }
+
+        List<EndpointResult> endpoints = new ArrayList<>();
+        scenario.operations().forEach(operation -> endpoints.add(new EndpointResult(operation.endpoint(),
+                latencies.get(operation.endpoint()), errors.get(operation.endpoint()).sum())));
+        return new ScenarioResult(scenario, endpoints);
+    }
+
+    private boolean send(LoadScenario.Operation operation, ThreadLocalRandom random) {
+        try {
+            int status = client.send(operation.request().apply(random), HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * The outcome of one scenario run.
+     */
+    record ScenarioResult(LoadScenario scenario, List<EndpointResult> endpoints) {
+    }
+
+    /**
+     * The latencies of successful responses and the number of failed ones for one endpoint.
+     */
+    record EndpointResult(String endpoint, Histogram latencies, long errors) {
+    }
+}
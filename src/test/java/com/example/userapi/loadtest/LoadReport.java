@@ -0,0 +1,145 @@
+package com.example.userapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The machine-readable result of a load-test run, in the same JSON format as the stored baseline
+ * so that a report can be promoted to the new baseline by copying it.
+ *
+ * @param scenarios The results per scenario, in run order.
+ */
+record LoadReport(List<ScenarioReport> scenarios) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * @param name            The scenario name.
+     * @param clients         The number of concurrent clients.
+     * @param durationSeconds The length of the measured window.
+     * @param endpoints       The results per endpoint.
+     */
+    record ScenarioReport(String name, int clients, double durationSeconds, List<EndpointReport> endpoints) {
+
+        Optional<EndpointReport> endpoint(String endpoint) {
+            return endpoints.stream().filter(report -> report.endpoint().equals(endpoint)).findFirst();
+        }
+    }
+
+    /**
+     * @param endpoint   The endpoint label.
+     * @param requests   Successful responses in the measured window.
+     * @param errors     Failed responses and I/O errors in the measured window.
+     * @param throughput Successful responses per second.
+     * @param p50Millis  Median latency of successful responses.
+     * @param p90Millis  90th percentile latency.
+     * @param p99Millis  99th percentile latency.
+     * @param maxMillis  Slowest successful response.
+     */
+    record EndpointReport(String endpoint, long requests, long errors, double throughput,
+                          double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * Summarizes the recorded scenario runs.
+     */
+    static LoadReport of(List<LoadGenerator.ScenarioResult> results) {
+        List<ScenarioReport> scenarios = new ArrayList<>();
+        for (LoadGenerator.ScenarioResult result : results) {
+            double seconds = result.scenario().duration().toMillis() / 1000.0;
+            List<EndpointReport> endpoints = result.endpoints().stream().map(endpoint -> {
+                Histogram latencies = endpoint.latencies();
+                return new EndpointReport(endpoint.endpoint(), latencies.getTotalCount(), endpoint.errors(),
+                        latencies.getTotalCount() / seconds,
+                        millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                        millis(latencies.getValueAtPercentile(99)), millis(latencies.getMaxValue()));
+            }).toList();
+            scenarios.add(new ScenarioReport(result.scenario().name(), result.scenario().clients(), seconds, endpoints));
+        }
+        return new LoadReport(scenarios);
+    }
+
+    /**
+     * Writes the JSON report and one HdrHistogram percentile distribution ({@code .hgrm}) per
+     * scenario and endpoint, which can be plotted with the HdrHistogram plotter.
+     *
+     * @param directory The directory to write to; created if missing.
+     * @param results   The raw results the report was built from.
+     * @return The path of the JSON report.
+     * @throws IOException if the files cannot be written.
+     */
+    Path write(Path directory, List<LoadGenerator.ScenarioResult> results) throws IOException {
+        Files.createDirectories(directory);
+        for (LoadGenerator.ScenarioResult result : results) {
+            for (LoadGenerator.EndpointResult endpoint : result.endpoints()) {
+                String fileName = result.scenario().name() + "-" + endpoint.endpoint().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                    endpoint.latencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+                }
+            }
+        }
+        Path report = directory.resolve("report.json");
+        MAPPER.writeValue(report.toFile(), this);
+        return report;
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Compares this report with a baseline. An endpoint regresses when its p99 exceeds the
+     * baseline p99 by more than the relative tolerance and the absolute slack, or when its
+     * throughput falls below the baseline by more than the throughput tolerance. The slack
+     * keeps sub-millisecond p99s from failing on scheduler noise. Scenarios and endpoints
+     * missing from the baseline are not gated.
+     *
+     * @param baseline            The stored baseline.
+     * @param p99Tolerance        Allowed relative p99 increase, e.g. 0.25 for 25%.
+     * @param p99SlackMillis      Allowed absolute p99 increase on top of the relative one.
+     * @param throughputTolerance Allowed relative throughput decrease, e.g. 0.20 for 20%.
+     * @return A description of every regression; empty if there are none.
+     */
+    List<String> regressionsAgainst(LoadReport baseline, double p99Tolerance, double p99SlackMillis, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioReport scenario : scenarios) {
+            Optional<ScenarioReport> expected = baseline.scenario(scenario.name());
+            if (expected.isEmpty()) {
+                continue;
+            }
+            for (EndpointReport actual : scenario.endpoints()) {
+                expected.get().endpoint(actual.endpoint()).ifPresent(base -> {
+                    double p99Limit = base.p99Millis() * (1 + p99Tolerance) + p99SlackMillis;
+                    if (actual.p99Millis() > p99Limit) {
+                        regressions.add(String.format("%s %s: p99 %.2f ms exceeds %.2f ms (baseline %.2f ms)",
+                                scenario.name(), actual.endpoint(), actual.p99Millis(), p99Limit, base.p99Millis()));
+                    }
+                    double throughputFloor = base.throughput() * (1 - throughputTolerance);
+                    if (actual.throughput() < throughputFloor) {
+                        regressions.add(String.format("%s %s: throughput %.1f/s below %.1f/s (baseline %.1f/s)",
+                                scenario.name(), actual.endpoint(), actual.throughput(), throughputFloor, base.throughput()));
+                    }
+                });
+            }
+        }
+        return regressions;
+    }
+
+    Optional<ScenarioReport> scenario(String name) {
+        return scenarios.stream().filter(scenario -> scenario.name().equals(name)).findFirst();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+}
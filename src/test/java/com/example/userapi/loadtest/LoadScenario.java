@@ -0,0 +1,42 @@
+package com.example.userapi.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * A closed-loop workload: a fixed number of clients, each issuing one request at a time and
+ * picking the next operation at random according to the operation weights.
+ *
+ * @param name       The scenario name, used as the key in reports and the baseline.
+ * @param clients    The number of concurrent clients.
+ * @param warmup     How long to run before latencies are recorded.
+ * @param duration   How long latencies are recorded for.
+ * @param operations The operations to mix, with their relative weights.
+ */
+record LoadScenario(String name, int clients, Duration warmup, Duration duration, List<Operation> operations) {
+
+    /**
+     * One kind of request in a scenario.
+     *
+     * @param endpoint The endpoint label reported for this operation, e.g. {@code GET /api/users/{id}}.
+     * @param weight   The relative weight with which the operation is picked.
+     * @param request  Builds the next request to send.
+     */
+    record Operation(String endpoint, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+    }
+
+    Operation pick(ThreadLocalRandom random) {
+        int total = operations.stream().mapToInt(Operation::weight).sum();
+        int roll = random.nextInt(total);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights must be positive");
+    }
+}
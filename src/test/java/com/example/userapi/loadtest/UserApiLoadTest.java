@@ -0,0 +1,194 @@
+package com.example.userapi.loadtest;
+
+import com.example.userapi.model.User;
+import com.example.userapi.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * End-to-end load test: boots the application on a random port, seeds users and drives three
+ * workloads against {@code /api/users}. The report is written to {@code target/load-test}, and
+ * the test fails when any endpoint's p99 or throughput regresses beyond the tolerances against
+ * the stored baseline.
+ *
+ * Latencies only compare between runs on the same kind of machine, so baselines are keyed by
+ * machine and active profiles ({@link #baselineKey}) and stored as
+ * {@code src/test/resources/loadtest/baselines/<key>.json}. Without a baseline for the current
+ * key the gates are skipped, unless loadtest.require-baseline=true.
+ *
+ * Excluded from the default build; run with: mvn -Ploadtest test
+ * Options (as -D system properties): loadtest.warmup and loadtest.duration in seconds per
+ * scenario, loadtest.machine to name the machine instead of deriving it, loadtest.baseline to
+ * use an explicit baseline file, loadtest.require-baseline, loadtest.p99-tolerance,
+ * loadtest.p99-slack-ms, loadtest.throughput-tolerance, and loadtest.update-baseline=true to
+ * store this run as the baseline for the current key instead of gating on it.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.example.userapi=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+public class UserApiLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserApiLoadTest.class);
+
+    private static final int USERS = 10_000;
+    private static final int HOT_USERS = 100;
+    private static final String JSON = "application/json";
+    private static final Path BASELINE_DIR = Path.of("src/test/resources/loadtest/baselines");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Environment environment;
+
+    private final AtomicLong signups = new AtomicLong();
+
+    @Test
+    void scenariosDoNotRegressAgainstBaseline() throws Exception {
+        long[] ids = seedUsers();
+        String baseUrl = "http://localhost:" + port + "/api/users";
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 15));
+
+        LoadScenario.Operation getById = new LoadScenario.Operation("GET /api/users/{id}", 90,
+                random -> get(baseUrl + "/" + ids[random.nextInt(ids.length)]));
+        LoadScenario.Operation listPage = new LoadScenario.Operation("GET /api/users", 10,
+                random -> get(baseUrl + "?limit=20&after=" + ids[random.nextInt(ids.length)]));
+        LoadScenario.Operation signup = new LoadScenario.Operation("POST /api/users", 1,
+                random -> signupRequest(baseUrl));
+        LoadScenario.Operation hotUpdate = new LoadScenario.Operation("PUT /api/users/{id}", 4,
+                random -> updateRequest(baseUrl, ids[random.nextInt(HOT_USERS)], random.nextInt()));
+        LoadScenario.Operation hotRead = new LoadScenario.Operation("GET /api/users/{id}", 1,
+                random -> get(baseUrl + "/" + ids[random.nextInt(HOT_USERS)]));
+
+        List<LoadScenario> scenarios = List.of(
+                new LoadScenario("read-heavy", 32, warmup, duration, List.of(getById, listPage)),
+                new LoadScenario("signup-burst", 16, warmup, duration, List.of(signup)),
+                // Concurrent writers on a small set of rows, interleaved with reads of the same rows
+                new LoadScenario("update-storm", 16, warmup, duration, List.of(hotUpdate, hotRead)));
+
+        LoadGenerator generator = new LoadGenerator();
+        List<LoadGenerator.ScenarioResult> results = new ArrayList<>();
+        for (LoadScenario scenario : scenarios) {
+            log.warn("Running load scenario {} with {} clients for {}s", scenario.name(), scenario.clients(), duration.toSeconds());
+            results.add(generator.run(scenario));
+        }
+
+        LoadReport report = LoadReport.of(results);
+        Path reportFile = report.write(Path.of(System.getProperty("loadtest.report-dir", "target/load-test")), results);
+        log.warn("Load test report written to {}", reportFile.toAbsolutePath());
+
+        String key = baselineKey();
+        String explicitBaseline = System.getProperty("loadtest.baseline");
+        Path baseline = explicitBaseline != null ? Path.of(explicitBaseline) : BASELINE_DIR.resolve(key + ".json");
+        if (Boolean.getBoolean("loadtest.update-baseline")) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(reportFile, baseline, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Baseline for {} updated at {}", key, baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            if (Boolean.getBoolean("loadtest.require-baseline")) {
+                fail("No baseline for " + key + " at " + baseline);
+            }
+            log.warn("No baseline for {} at {}; skipping regression gates", key, baseline.toAbsolutePath());
+            return;
+        }
+        List<String> regressions = report.regressionsAgainst(LoadReport.read(baseline),
+                Double.parseDouble(System.getProperty("loadtest.p99-tolerance", "0.25")),
+                Double.parseDouble(System.getProperty("loadtest.p99-slack-ms", "5")),
+                Double.parseDouble(System.getProperty("loadtest.throughput-tolerance", "0.20")));
+        assertTrue(regressions.isEmpty(), () -> "Performance regressed against " + baseline + ":\n" + String.join("\n", regressions));
+    }
+
+    /**
+     * Names the machine and configuration a run is comparable with: loadtest.machine if set,
+     * otherwise the OS, architecture and processor count, followed by the active profiles.
+     * For example {@code linux-amd64-8cpu} or {@code linux-amd64-8cpu-virtual-threads}.
+     */
+    private String baselineKey() {
+        String machine = System.getProperty("loadtest.machine", String.join("-",
+                System.getProperty("os.name"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors() + "cpu"));
+        List<String> parts = new ArrayList<>(List.of(machine));
+        parts.addAll(List.of(environment.getActiveProfiles()));
+        return String.join("-", parts).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.]+", "-");
+    }
+
+    private long[] seedUsers() {
+        userRepository.deleteAll();
+        String password = passwordEncoder.encode("loadTestPassword");
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("seed" + i);
+            user.setPassword(password);
+            user.setEmail("seed" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            users.add(user);
+        }
+        return userRepository.saveAll(users).stream().mapToLong(User::getId).toArray();
+    }
+
+    private HttpRequest signupRequest(String baseUrl) {
+        long n = signups.incrementAndGet();
+        return post(baseUrl, """
+                {"username":"load%d","password":"loadTestPassword","email":"load%d@example.com","firstName":"Load","lastName":"Test"}"""
+                .formatted(n, n));
+    }
+
+    private HttpRequest updateRequest(String baseUrl, long id, int revision) {
+        String body = """
+                {"username":"ignored","password":"loadTestPassword","email":"hot%d@example.com","firstName":"Rev%d","lastName":"Test"}"""
+                .formatted(id, revision);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DebugDiscardingAsyncAppenderTest {
+
+    private final DebugDiscardingAsyncAppender appender = new DebugDiscardingAsyncAppender();
+
+    @Test
+    void isDiscardable_OnlyForDebugAndTrace() {
+        assertTrue(appender.isDiscardable(event(Level.TRACE)));
+        assertTrue(appender.isDiscardable(event(Level.DEBUG)));
+        assertFalse(appender.isDiscardable(event(Level.INFO)));
+        assertFalse(appender.isDiscardable(event(Level.WARN)));
+        assertFalse(appender.isDiscardable(event(Level.ERROR)));
+    }
+
+    private static ILoggingEvent event(Level level) {
+        LoggerContext context = new LoggerContext();
+        return new LoggingEvent(DebugDiscardingAsyncAppenderTest.class.getName(), context.getLogger("test"), level, "message", null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.userapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        filter = new SamplingTurboFilter();
+        filter.setContext(loggerContext);
+        filter.setLoggerName("org.hibernate.SQL");
+    }
+
+    @Test
+    void decide_KeepsRoughlyTheSampleRateOfMatchingEvents() {
+        filter.setSampleRate(0.1);
+        filter.start();
+        Logger sql = loggerContext.getLogger("org.hibernate.SQL");
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, sql, Level.DEBUG, "select 1", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept > 800 && kept < 1200, "kept " + kept + " of 10000");
+    }
+
+    @Test
+    void decide_LeavesOtherLoggersAndLevelChecksAlone() {
+        filter.setSampleRate(0);
+        filter.start();
+
+        assertEquals(FilterReply.NEUTRAL,
+                filter.decide(null, loggerContext.getLogger("com.example.userapi"), Level.INFO, "hello", null, null));
+        assertEquals(FilterReply.NEUTRAL,
+                filter.decide(null, loggerContext.getLogger("org.hibernate.SQL"), Level.DEBUG, null, null, null));
+        assertEquals(FilterReply.DENY,
+                filter.decide(null, loggerContext.getLogger("org.hibernate.SQL"), Level.DEBUG, "select 1", null, null));
+    }
+
+    @Test
+    void decide_SamplesChildLoggersButNotPrefixSiblings() {
+        filter.setSampleRate(0);
+        filter.start();
+
+        assertEquals(FilterReply.DENY,
+                filter.decide(null, loggerContext.getLogger("org.hibernate.SQL.child"), Level.DEBUG, "select 1", null, null));
+        assertEquals(FilterReply.NEUTRAL,
+                filter.decide(null, loggerContext.getLogger("org.hibernate.SQL_SLOW"), Level.INFO, "slow query", null, null));
+    }
+
+    @Test
+    void start_RejectsInvalidSampleRate() {
+        filter.setSampleRate(1.5);
+        filter.start();
+
+        assertFalse(filter.isStarted());
+    }
+}
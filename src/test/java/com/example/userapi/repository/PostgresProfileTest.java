@@ -0,0 +1,130 @@
+package com.example.userapi.repository;
+
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPatchDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.service.UserBatchService;
+import com.example.userapi.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the postgres profile against an embedded PostgreSQL server: the Flyway migrations must produce
+ * the schema the entity expects, since Hibernate no longer validates it, and the native and bulk
+ * statements must work on PostgreSQL as they do on H2.
+ * Tagged "postgres" and only run in the postgres-it Maven profile, because PostgreSQL refuses to run as root.
+ */
+@Tag("postgres")
+@SpringBootTest
+@ActiveProfiles("postgres")
+@TestPropertySource(properties = "userapi.password.bcrypt.strength=4")
+public class PostgresProfileTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void migrationsCreateTheMappedSchemaWithNamedIndexes() {
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where success and version = '1'", Integer.class));
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename = 'users' order by indexname", String.class);
+        assertEquals(List.of("idx_users_deleted_at", "uk_users_email", "uk_users_username", "users_pkey"), indexes);
+    }
+
+    @Test
+    void crudPathsRunOnPostgres() throws Exception {
+        UserDTO created = userService.createUser(request("pg-alice", "pg-alice@example.com"));
+        assertEquals(0L, created.getVersion());
+        assertThrows(DuplicateResourceException.class, () -> userService.createUser(request("pg-alice", "other@example.com")));
+
+        UserPatchDTO patch = new UserPatchDTO();
+        patch.setLastName("Patched");
+        UserDTO patched = userService.patchUser(created.getId(), patch, 0L);
+        assertEquals("Patched", patched.getLastName());
+        assertEquals("pg-alice@example.com", patched.getEmail());
+        assertEquals(1L, patched.getVersion());
+        assertThrows(PreconditionFailedException.class, () -> userService.patchUser(created.getId(), patch, 0L));
+
+        userService.deleteUser(created.getId());
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(created.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(created.getId()));
+    }
+
+    @Test
+    void batchInsertsKeysetPagesAndPurgeRunOnPostgres() {
+        List<BatchItemResultDTO> created = userBatchService.createUsers(List.of(
+                request("pg-bob", "pg-bob@example.com"),
+                request("pg-carol", "pg-carol@example.com"),
+                request("pg-dave", "pg-dave@example.com")
+        ));
+        assertEquals(List.of(201, 201, 201), created.stream().map(BatchItemResultDTO::getStatus).toList());
+
+        Long first = created.get(0).getId();
+        List<UserDTO> page = userRepository.findUserDTOsByIdGreaterThan(first - 1, Limit.of(2));
+        assertEquals(List.of("pg-bob", "pg-carol"), page.stream().map(UserDTO::getUsername).toList());
+
+        assertEquals(1, userRepository.softDeleteById(first, Instant.now().minusSeconds(60)));
+        assertEquals(1, userRepository.purgeDeletedBefore(Instant.now(), 10));
+        assertFalse(userRepository.existsById(first));
+    }
+
+    private static UserRequestDTO request(String username, String email) {
+        UserRequestDTO request = new UserRequestDTO();
+        request.setUsername(username);
+        request.setPassword("secret123");
+        request.setEmail(email);
+        return request;
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.userapi.service;
+
+import com.example.userapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PasswordHashingServiceTest {
+
+    private PasswordEncoder passwordEncoder;
+    private ThreadPoolExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashingService;
+
+    /**
+     * Sets up a hashing service backed by a single-thread executor with a one-slot queue.
+     */
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingService(passwordEncoder, executor, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that encode delegates to the PasswordEncoder and records queue wait and hash time.
+     */
+    @Test
+    void encodeTest() {
+        when(passwordEncoder.encode("plainPassword")).thenReturn("encodedPassword");
+
+        assertEquals("encodedPassword", passwordHashingService.encode("plainPassword"));
+        assertEquals(1, meterRegistry.get("password.hashing.queue.wait").timer().count());
+        assertEquals(1, meterRegistry.get("password.hashing.duration").timer().count());
+    }
+
+    /**
+     * Tests that encodeReplacing counts a hash upgrade when the previous hash is outdated.
+     */
+    @Test
+    void encodeReplacingTest_Upgrade() {
+        when(passwordEncoder.upgradeEncoding("$2a$04$legacy")).thenReturn(true);
+        when(passwordEncoder.encode("newPassword")).thenReturn("{bcrypt}$2a$10$current");
+
+        assertEquals("{bcrypt}$2a$10$current", passwordHashingService.encodeReplacing("newPassword", "$2a$04$legacy"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.upgraded").counter().count());
+    }
+
+    /**
+     * Tests that encodeReplacing does not count an upgrade when the previous hash is current.
+     */
+    @Test
+    void encodeReplacingTest_Current() {
+        when(passwordEncoder.upgradeEncoding("{bcrypt}$2a$10$current")).thenReturn(false);
+        when(passwordEncoder.encode("newPassword")).thenReturn("{bcrypt}$2a$10$next");
+
+        assertEquals("{bcrypt}$2a$10$next", passwordHashingService.encodeReplacing("newPassword", "{bcrypt}$2a$10$current"));
+        assertEquals(0.0, meterRegistry.get("password.hashing.upgraded").counter().count());
+    }
+
+    /**
+     * Tests that encode fails fast with ServiceUnavailableException once the pool and its queue are full.
+     *
+     * @throws InterruptedException If the test is interrupted while waiting for the worker.
+     */
+    @Test
+    void encodeTest_Saturated() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+        executor.execute(() -> awaitQuietly(release));
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingService.encode("plainPassword"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        release.countDown();
+    }
+
+    /**
+     * Tests that encoder failures are propagated to the caller unchanged.
+     */
+    @Test
+    void encodeTest_EncoderFailure() {
+        when(passwordEncoder.encode(any())).thenThrow(new IllegalArgumentException("rawPassword cannot be null"));
+
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingService.encode("plainPassword"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class UserBatchLoaderTest {
+
+    private UserRepository userRepository;
+    private CaffeineCacheManager cacheManager;
+    private MeterRegistry meterRegistry;
+    private UserBatchLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findUserDTOsByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id < 100).map(UserBatchLoaderTest::user).toList();
+        });
+        cacheManager = new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Verifies that cached users are served from the cache, and only the remaining ids reach one query,
+     * each id once; ids without a user are absent from the result.
+     */
+    @Test
+    void loadsCacheMissesInOneQueryTest() {
+        loader = new UserBatchLoader(userRepository, cacheManager, Duration.ofMillis(1), 500, meterRegistry);
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, user(1L));
+
+        Map<Long, UserDTO> users = loader.loadAll(List.of(1L, 2L, 3L, 2L, 404L));
+
+        assertEquals(Set.of(1L, 2L, 3L), users.keySet());
+        assertEquals("user2", users.get(2L).getUsername());
+        verify(userRepository).findUserDTOsByIdIn(argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(2L, 3L, 404L))));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    /**
+     * Verifies that requests arriving within one window share a single query.
+     */
+    @Test
+    void concurrentCallersShareOneQueryTest() throws Exception {
+        loader = new UserBatchLoader(userRepository, cacheManager, Duration.ofMillis(200), 500, meterRegistry);
+        int callers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Map<Long, UserDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                long id = i + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return loader.loadAll(List.of(id, 404L));
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < callers; i++) {
+                Map<Long, UserDTO> users = results.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(Set.of(i + 1L), users.keySet());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findUserDTOsByIdIn(anyCollection());
+        DistributionSummary batchSizes = meterRegistry.get("users.lookup.batch.size").summary();
+        assertEquals(1, batchSizes.count());
+        assertEquals(callers + 1, batchSizes.totalAmount());
+    }
+
+    /**
+     * Verifies that a batch is sent as soon as it reaches the maximum size, without waiting for the window.
+     */
+    @Test
+    void fullBatchesAreSentAtOnceTest() {
+        loader = new UserBatchLoader(userRepository, cacheManager, Duration.ofMinutes(1), 2, meterRegistry);
+
+        Map<Long, UserDTO> users = loader.loadAll(List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(4, users.size());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(2)).findUserDTOsByIdIn(batches.capture());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L)),
+                batches.getAllValues().stream().map(List::copyOf).toList());
+    }
+
+    /**
+     * Verifies that a slow query holds up only its own batch: a batch of a later window is loaded meanwhile.
+     */
+    @Test
+    void slowBatchDoesNotDelayLaterWindowsTest() throws Exception {
+        loader = new UserBatchLoader(userRepository, cacheManager, Duration.ofMillis(1), 500, meterRegistry);
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findUserDTOsByIdIn(argThat(ids -> ids.contains(1L)))).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(user(1L));
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Map<Long, UserDTO>> slow = executor.submit(() -> loader.loadAll(List.of(1L)));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+
+            Map<Long, UserDTO> users = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> loader.loadAll(List.of(2L)));
+
+            assertEquals(Set.of(2L), users.keySet());
+            release.countDown();
+            assertEquals(Set.of(1L), slow.get(5, TimeUnit.SECONDS).keySet());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that a failed query reaches every caller waiting on the batch.
+     */
+    @Test
+    void queryFailuresArePropagatedTest() {
+        loader = new UserBatchLoader(userRepository, cacheManager, Duration.ofMillis(1), 500, meterRegistry);
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        when(userRepository.findUserDTOsByIdIn(anyCollection())).thenThrow(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> loader.loadAll(List.of(1L))));
+    }
+
+    private static UserDTO user(long id) {
+        return new UserDTO(id, "user" + id, "user" + id + "@example.com", "User", String.valueOf(id), 0L);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.UserBatchUpdateDTO;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.model.User;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mockito.AdditionalAnswers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the batch operations against the embedded database so chunking, JDBC batching
+ * and the per-item constraint fallback are exercised for real.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "userapi.batch.chunk-size=2",
+        "userapi.password.bcrypt.strength=4"
+})
+public class UserBatchServiceTest {
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    @Test
+    void createUsers_InsertsValidItemsAndReportsEachFailure() {
+        userRepository.saveAndFlush(existingUser());
+        double lookupsBefore = existenceLookups();
+
+        List<BatchItemResultDTO> results = userBatchService.createUsers(Arrays.asList(
+                request("alice", "alice@example.com"),
+                request("bob", "bob@example.com"),
+                request("alice", "alice2@example.com"),
+                request("carol", "not-an-email"),
+                request("taken", "dave@example.com"),
+                request("erin", "erin@example.com")
+        ));
+
+        assertEquals(List.of(201, 201, 409, 400, 409, 201), results.stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals("username", results.get(2).getField());
+        assertEquals("email", results.get(3).getField());
+        assertEquals("username", results.get(4).getField());
+        assertNotNull(results.get(0).getId());
+        assertEquals("alice", results.get(0).getUser().getUsername());
+        assertEquals(4, userRepository.count());
+        assertTrue(userRepository.findByUsername("erin").orElseThrow().getPassword().startsWith("{bcrypt}"));
+        // One filter outcome per username and email of the four items checked against the database
+        assertEquals(8, existenceLookups() - lookupsBefore);
+    }
+
+    @Test
+    void updateUsers_UpdatesFoundUsersAndReportsMissingOnes() {
+        List<BatchItemResultDTO> created = userBatchService.createUsers(List.of(
+                request("alice", "alice@example.com"),
+                request("bob", "bob@example.com")
+        ));
+        Long aliceId = created.get(0).getId();
+        Long bobId = created.get(1).getId();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(aliceId, new UserDTO());
+
+        List<BatchItemResultDTO> results = userBatchService.updateUsers(List.of(
+                update(aliceId, "alice@new.example.com"),
+                update(-1L, "ghost@example.com"),
+                update(aliceId, "again@example.com"),
+                update(bobId, "alice@new.example.com")
+        ));
+
+        assertEquals(List.of(200, 404, 400, 409), results.stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals("email", results.get(3).getField());
+        assertEquals("alice@new.example.com", userRepository.findById(aliceId).orElseThrow().getEmail());
+        assertEquals("bob@example.com", userRepository.findById(bobId).orElseThrow().getEmail());
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(aliceId));
+    }
+
+    @Test
+    void updateUsers_KeepsOmittedFieldsAndPassword() {
+        Long aliceId = userBatchService.createUsers(List.of(request("alice", "alice@example.com"))).get(0).getId();
+        String hash = userRepository.findById(aliceId).orElseThrow().getPassword();
+
+        UserBatchUpdateDTO update = new UserBatchUpdateDTO();
+        update.setId(aliceId);
+        update.setLastName("Liddell");
+        List<BatchItemResultDTO> results = userBatchService.updateUsers(List.of(update));
+
+        assertEquals(200, results.get(0).getStatus());
+        User alice = userRepository.findById(aliceId).orElseThrow();
+        assertEquals("Liddell", alice.getLastName());
+        assertEquals("First", alice.getFirstName());
+        assertEquals("alice@example.com", alice.getEmail());
+        assertEquals(hash, alice.getPassword());
+        assertEquals(alice.getVersion(), results.get(0).getUser().getVersion());
+    }
+
+    @Test
+    void updateUsers_RetriesChunkEditedConcurrently() {
+        List<BatchItemResultDTO> created = userBatchService.createUsers(List.of(
+                request("alice", "alice@example.com"),
+                request("bob", "bob@example.com")
+        ));
+        Long aliceId = created.get(0).getId();
+        Long bobId = created.get(1).getId();
+        // Another writer commits a change to alice after the chunk has loaded her
+        UserRepository racing = mock(UserRepository.class, AdditionalAnswers.delegatesTo(userRepository));
+        doAnswer(invocation -> {
+            List<User> users = userRepository.findAllById(invocation.getArgument(0));
+            TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+            concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            concurrent.executeWithoutResult(status ->
+                    jdbcTemplate.update("update users set version = version + 1 where id = ?", aliceId));
+            return users;
+        }).when(racing).findAllById(anyIterable());
+        Object target = AopTestUtils.getTargetObject(userBatchService);
+        ReflectionTestUtils.setField(target, "userRepository", racing);
+
+        List<BatchItemResultDTO> results;
+        try {
+            results = userBatchService.updateUsers(List.of(
+                    update(aliceId, "alice@new.example.com"),
+                    update(bobId, "bob@new.example.com")
+            ));
+        } finally {
+            ReflectionTestUtils.setField(target, "userRepository", userRepository);
+        }
+
+        assertEquals(List.of(200, 200), results.stream().map(BatchItemResultDTO::getStatus).toList());
+        User alice = userRepository.findById(aliceId).orElseThrow();
+        assertEquals("alice@new.example.com", alice.getEmail());
+        assertEquals(2L, alice.getVersion());
+        assertEquals(2L, results.get(0).getUser().getVersion());
+        assertEquals("bob@new.example.com", userRepository.findById(bobId).orElseThrow().getEmail());
+    }
+
+    @Test
+    void deleteUsers_DeletesExistingIdsAndReportsMissingOnes() {
+        List<BatchItemResultDTO> created = userBatchService.createUsers(List.of(
+                request("alice", "alice@example.com"),
+                request("bob", "bob@example.com"),
+                request("carol", "carol@example.com")
+        ));
+
+        List<BatchItemResultDTO> results = userBatchService.deleteUsers(Arrays.asList(
+                created.get(0).getId(), -1L, created.get(2).getId(), null));
+
+        assertEquals(List.of(200, 404, 200, 400), results.stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals(1, userRepository.count());
+        assertTrue(userRepository.findByUsername("bob").isPresent());
+    }
+
+    /**
+     * @return Existence lookups that the filter ruled out or the database confirmed, across all outcomes.
+     */
+    private double existenceLookups() {
+        return meterRegistry.find("users.existence.filter.lookups").counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static User existingUser() {
+        User user = new User();
+        user.setUsername("taken");
+        user.setPassword("{noop}secret");
+        user.setEmail("taken@example.com");
+        return user;
+    }
+
+    private static UserRequestDTO request(String username, String email) {
+        UserRequestDTO request = new UserRequestDTO();
+        request.setUsername(username);
+        request.setPassword("secret123");
+        request.setEmail(email);
+        request.setFirstName("First");
+        request.setLastName("Last");
+        return request;
+    }
+
+    private static UserBatchUpdateDTO update(Long id, String email) {
+        UserBatchUpdateDTO update = new UserBatchUpdateDTO();
+        update.setId(id);
+        update.setPassword("secret456");
+        update.setEmail(email);
+        update.setFirstName("New");
+        update.setLastName("Name");
+        return update;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.userapi.service;
+
+import com.example.userapi.repository.UserIdentity;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UserExistenceFilterTest {
+
+    private UserRepository userRepository;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Sets up a repository mock holding one user and a transaction manager that always succeeds.
+     */
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.streamAllIdentities()).thenAnswer(invocation -> Stream.of(identity("testuser", "test@example.com")));
+    }
+
+    private UserExistenceFilter filter(boolean enabled) {
+        return new UserExistenceFilter(userRepository, transactionManager, enabled, 1000, 0.01, 2, meterRegistry);
+    }
+
+    /**
+     * Verifies that every lookup falls through to the database before the first build.
+     */
+    @Test
+    void beforeBuildTest() {
+        UserExistenceFilter filter = filter(true);
+
+        assertTrue(filter.mightContainUsername("anyone"));
+        assertTrue(filter.mightContainEmail("anyone@example.com"));
+    }
+
+    /**
+     * Verifies that a rebuild loads existing users and that later writes are recorded.
+     */
+    @Test
+    void rebuildAndRecordTest() {
+        UserExistenceFilter filter = filter(true);
+        filter.rebuild();
+
+        assertTrue(filter.mightContainUsername("testuser"));
+        assertTrue(filter.mightContainEmail("test@example.com"));
+        assertFalse(filter.mightContainUsername("newuser"));
+
+        filter.recordUser("newuser", "new@example.com");
+        assertTrue(filter.mightContainUsername("newuser"));
+        assertTrue(filter.mightContainEmail("new@example.com"));
+        assertEquals(1.0, meterRegistry.get("users.existence.filter.lookups").tag("result", "negative").counter().count());
+    }
+
+    /**
+     * Verifies that a user recorded while a rebuild is scanning ends up in the filters the rebuild publishes.
+     */
+    @Test
+    void recordUserDuringRebuildTest() throws InterruptedException {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch recorded = new CountDownLatch(1);
+        when(userRepository.streamAllIdentities()).thenAnswer(invocation -> Stream.of(identity("testuser", "test@example.com"))
+                .peek(identity -> {
+                    scanning.countDown();
+                    awaitQuietly(recorded);
+                }));
+        UserExistenceFilter filter = filter(true);
+        Thread rebuild = new Thread(filter::rebuild);
+        rebuild.start();
+
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        filter.recordUser("newuser", "new@example.com");
+        recorded.countDown();
+        rebuild.join(5000);
+
+        assertTrue(filter.mightContainUsername("newuser"));
+        assertTrue(filter.mightContainEmail("new@example.com"));
+    }
+
+    /**
+     * Verifies that no recorded user is ever missing from the filters, however its write interleaves
+     * with rebuilds swapping in new filters.
+     */
+    @Test
+    void recordUserRacingRebuildsTest() throws InterruptedException {
+        List<String> stored = new CopyOnWriteArrayList<>();
+        when(userRepository.streamAllIdentities()).thenAnswer(invocation -> stored.stream()
+                .map(username -> identity(username, username + "@example.com")));
+        UserExistenceFilter filter = filter(true);
+        filter.rebuild();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread rebuilds = new Thread(() -> {
+            while (running.get()) {
+                filter.rebuild();
+            }
+        });
+        rebuilds.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                String username = "user" + i;
+                stored.add(username);
+                filter.recordUser(username, username + "@example.com");
+                assertTrue(filter.mightContainUsername(username), username);
+            }
+        } finally {
+            running.set(false);
+            rebuilds.join(5000);
+        }
+    }
+
+    /**
+     * Verifies that the observed false positive rate reflects database confirmations.
+     */
+    @Test
+    void observedFalsePositiveRateTest() {
+        UserExistenceFilter filter = filter(true);
+        filter.recordConfirmation(true);
+        filter.recordConfirmation(false);
+
+        assertEquals(0.5, meterRegistry.get("users.existence.filter.fpp.observed").gauge().value());
+    }
+
+    /**
+     * Verifies that a disabled filter never builds and never rules anything out.
+     */
+    @Test
+    void disabledTest() {
+        UserExistenceFilter filter = filter(false);
+        filter.rebuild();
+
+        assertTrue(filter.mightContainUsername("newuser"));
+        verify(userRepository, never()).streamAllIdentities();
+    }
+
+    private static UserIdentity identity(String username, String email) {
+        return new UserIdentity() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
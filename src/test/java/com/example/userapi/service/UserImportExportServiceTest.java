@@ -0,0 +1,123 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.ImportReportDTO;
+import com.example.userapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streams imports and exports through the embedded database, with a chunk size small enough
+ * that every import spans several pipeline chunks.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "userapi.batch.chunk-size=2",
+        "userapi.password.bcrypt.strength=4"
+})
+public class UserImportExportServiceTest {
+
+    @Autowired
+    private UserImportExportService userImportExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
+
+    @Test
+    void importUsers_Ndjson_ImportsValidLinesAndReportsTheRest() throws IOException {
+        String input = """
+                {"username":"alice","password":"secret123","email":"alice@example.com"}
+                {"username":"bob","password":"secret123","email":"bob@example.com"}
+
+                {"username":"broken",
+                {"username":"alice","password":"secret123","email":"alice2@example.com"}
+                {"username":"carol","password":"short","email":"carol@example.com"}
+                {"username":"dave","password":"secret123","email":"dave@example.com","firstName":"Dave"}
+                """;
+
+        ImportReportDTO report = importUsers(input, UserDataFormat.NDJSON);
+
+        assertEquals(6, report.getProcessed());
+        assertEquals(3, report.getCreated());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2, 3, 4), report.getFailures().stream().map(BatchItemResultDTO::getIndex).toList());
+        assertEquals(List.of(400, 409, 400), report.getFailures().stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals("Dave", userRepository.findByUsername("dave").orElseThrow().getFirstName());
+    }
+
+    @Test
+    void importUsers_Csv_MapsColumnsByHeader() throws IOException {
+        String input = """
+                email,username,password,lastName
+                alice@example.com,alice,secret123,"Smith, Jr."
+                bob@example.com,bob,secret123,Jones
+                carol@example.com,carol,secret123,Brown
+                """;
+
+        ImportReportDTO report = importUsers(input, UserDataFormat.CSV);
+
+        assertEquals(3, report.getCreated());
+        assertEquals(0, report.getFailed());
+        assertEquals("Smith, Jr.", userRepository.findByUsername("alice").orElseThrow().getLastName());
+    }
+
+    @Test
+    void exportUsers_Csv_WritesHeaderAndOneRowPerUser() throws IOException {
+        importUsers("""
+                {"username":"alice","password":"secret123","email":"alice@example.com","lastName":"Smith, Jr."}
+                {"username":"bob","password":"secret123","email":"bob@example.com"}
+                """, UserDataFormat.NDJSON);
+        Long aliceId = userRepository.findByUsername("alice").orElseThrow().getId();
+        Long bobId = userRepository.findByUsername("bob").orElseThrow().getId();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = userImportExportService.exportUsers(out, UserDataFormat.CSV);
+
+        assertEquals(2, count);
+        assertEquals("id,username,email,firstName,lastName\n"
+                        + aliceId + ",alice,alice@example.com,,\"Smith, Jr.\"\n"
+                        + bobId + ",bob,bob@example.com,,\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportUsers_Ndjson_WritesOneObjectPerLine() throws IOException {
+        importUsers("""
+                {"username":"alice","password":"secret123","email":"alice@example.com"}
+                """, UserDataFormat.NDJSON);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userImportExportService.exportUsers(out, UserDataFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"alice\""));
+        assertFalse(lines[0].contains("password"));
+    }
+
+    private ImportReportDTO importUsers(String input, UserDataFormat format) throws IOException {
+        return userImportExportService.importUsers(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
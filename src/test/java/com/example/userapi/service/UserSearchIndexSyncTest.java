@@ -0,0 +1,88 @@
+package com.example.userapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongConsumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class UserSearchIndexSyncTest {
+
+    private static final String CHANNEL = "test:search-index";
+
+    private UserSearchIndex searchIndex;
+    private RedisTemplate<String, byte[]> redis;
+    private UserSearchIndexSync sync;
+    private LongConsumer writeListener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        searchIndex = mock(UserSearchIndex.class);
+        redis = mock(RedisTemplate.class);
+        sync = new UserSearchIndexSync(searchIndex, redis, "node-a", CHANNEL);
+        ArgumentCaptor<LongConsumer> listener = ArgumentCaptor.forClass(LongConsumer.class);
+        verify(searchIndex).addWriteListener(listener.capture());
+        writeListener = listener.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Verifies that a write outside a transaction is broadcast at once.
+     */
+    @Test
+    void broadcastsWritesTest() {
+        writeListener.accept(42L);
+
+        verify(redis).convertAndSend(CHANNEL, "node-a 42".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that a write inside a transaction is only broadcast once it has committed.
+     */
+    @Test
+    void broadcastsTransactionalWritesAfterCommitTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        writeListener.accept(42L);
+        verify(redis, never()).convertAndSend(any(), any());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        verify(redis).convertAndSend(CHANNEL, "node-a 42".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifies that users written by other nodes are reloaded, and this node's own messages are ignored.
+     */
+    @Test
+    void reloadsUsersWrittenByOtherNodesTest() {
+        sync.onMessage(message("node-b 7"), null);
+        sync.onMessage(message("node-a 8"), null);
+        sync.onMessage(message("node-b not-an-id"), null);
+
+        verify(searchIndex).reload(7L);
+        verify(searchIndex, never()).reload(eq(8L));
+        verify(searchIndex, times(1)).reload(anyLong());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
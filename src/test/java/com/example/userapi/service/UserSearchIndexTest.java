@@ -0,0 +1,163 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserSearchPageDTO;
+import com.example.userapi.exception.ServiceUnavailableException;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserSearchIndexTest {
+
+    private UserRepository userRepository;
+    private UserSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userRepository = mock(UserRepository.class);
+        searchIndex = new UserSearchIndex(userRepository, mock(PlatformTransactionManager.class), "",
+                Duration.ofSeconds(1), Duration.ofMillis(1), Duration.ofMillis(4), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    void search_FailsUntilBuilt() {
+        assertThrows(ServiceUnavailableException.class, () -> searchIndex.search("alice", 0, 10));
+    }
+
+    @Test
+    void buildUntilReady_RetriesFailedBuildsAndReportsHealth() {
+        UserSearchIndexHealthIndicator health = new UserSearchIndexHealthIndicator(searchIndex);
+        assertEquals(Status.UNKNOWN, health.health().getStatus());
+
+        when(userRepository.streamUserDTOsOrderedById())
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenAnswer(invocation -> Stream.of(user(1L, "alice", "alice@example.com", null, null)));
+        assertFalse(searchIndex.build());
+        assertEquals(Status.DOWN, health.health().getStatus());
+        assertEquals(1, health.health().getDetails().get("failedBuilds"));
+
+        searchIndex.buildUntilReady();
+
+        assertTrue(searchIndex.isReady());
+        assertEquals(2, searchIndex.getFailedBuilds());
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals(List.of(1L), ids(searchIndex.search("alice", 0, 10)));
+    }
+
+    @Test
+    void search_MatchesPrefixAndSubstringIgnoringCase() {
+        build(user(1L, "alice", "alice@example.com", "Alice", "Smith"),
+                user(2L, "bob", "bob@example.com", "Bob", "Goldsmith"),
+                user(3L, "carol", "carol@example.org", null, null));
+
+        assertEquals(List.of(1L), ids(searchIndex.search("ALI", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("smith", 0, 10)));
+        assertEquals(List.of(3L), ids(searchIndex.search("example.org", 0, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("b", 0, 10)));
+        assertEquals(List.of(), ids(searchIndex.search("zzz", 0, 10)));
+    }
+
+    @Test
+    void search_MatchesSubstringsOnlyWhereContiguous() {
+        build(user(1L, "abc_bcd", "one@example.com", null, null),
+                user(2L, "xabcdx", "two@example.com", null, null));
+
+        assertEquals(List.of(2L), ids(searchIndex.search("abcd", 0, 10)));
+    }
+
+    @Test
+    void search_RanksExactBeforePrefixBeforeSubstringAndUsernameBeforeName() {
+        build(user(1L, "xannax", "one@example.com", null, null),
+                user(2L, "annabel", "two@example.com", null, null),
+                user(3L, "anna", "three@example.com", null, null),
+                user(4L, "zed", "four@example.com", "Anna", null));
+
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(searchIndex.search("anna", 0, 10)));
+    }
+
+    @Test
+    void search_PaginatesByRankThenId() {
+        build(Stream.iterate(1L, id -> id + 1).limit(25)
+                .map(id -> user(id, "user" + id, "user" + id + "@example.com", null, null))
+                .toArray(UserDTO[]::new));
+
+        UserSearchPageDTO second = searchIndex.search("example", 1, 10);
+
+        assertEquals(25, second.getTotalHits());
+        assertEquals(1, second.getPage());
+        assertEquals(Stream.iterate(11L, id -> id + 1).limit(10).toList(), ids(second));
+        assertEquals(5, searchIndex.search("example", 2, 10).getUsers().size());
+    }
+
+    @Test
+    void indexAndRemove_AreVisibleAfterRefresh() throws IOException {
+        build(user(1L, "alice", "alice@example.com", "Alice", "Smith"));
+
+        searchIndex.index(user(1L, "alice", "alice@new.example.com", "Alice", "Jones"));
+        searchIndex.index(user(2L, "alina", "alina@example.com", null, null));
+        searchIndex.refresh();
+        assertEquals(List.of(1L), ids(searchIndex.search("jones", 0, 10)));
+        assertEquals(List.of(), ids(searchIndex.search("smith", 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("ali", 0, 10)));
+
+        searchIndex.remove(2L);
+        searchIndex.refresh();
+        assertEquals(List.of(1L), ids(searchIndex.search("ali", 0, 10)));
+        assertEquals("alice@new.example.com", searchIndex.search("ali", 0, 10).getUsers().get(0).getEmail());
+    }
+
+    @Test
+    void reload_ReadsTheDatabaseWithoutTellingWriteListeners() throws IOException {
+        build(user(1L, "alice", "alice@example.com", null, null), user(2L, "alina", "alina@example.com", null, null));
+        List<Long> written = new ArrayList<>();
+        searchIndex.addWriteListener(written::add);
+        when(userRepository.findUserDTOById(1L)).thenReturn(Optional.of(user(1L, "alice", "alice@example.com", null, "Jones")));
+        when(userRepository.findUserDTOById(2L)).thenReturn(Optional.empty());
+
+        searchIndex.reload(1L);
+        searchIndex.reload(2L);
+        searchIndex.refresh();
+        assertEquals(List.of(1L), ids(searchIndex.search("jones", 0, 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search("ali", 0, 10)));
+        assertEquals(List.of(), written);
+
+        searchIndex.index(user(3L, "carol", "carol@example.com", null, null));
+        searchIndex.remove(3L);
+        assertEquals(List.of(3L, 3L), written);
+    }
+
+    private void build(UserDTO... users) {
+        when(userRepository.streamUserDTOsOrderedById()).thenReturn(Stream.of(users));
+        searchIndex.build();
+        assertTrue(searchIndex.isReady());
+    }
+
+    private static List<Long> ids(UserSearchPageDTO page) {
+        return page.getUsers().stream().map(UserDTO::getId).toList();
+    }
+
+    private static UserDTO user(Long id, String username, String email, String firstName, String lastName) {
+        return new UserDTO(id, username, email, firstName, lastName);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.model.User;
+import com.example.userapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(UserServiceCacheTest.TestConfig.class)
+public class UserServiceCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, UserService.class})
+    static class TestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        }
+    }
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserExistenceFilter existenceFilter;
+
+    @MockBean
+    private UserSearchIndex searchIndex;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private UserBatchLoader batchLoader;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Clears the cache and stubs a single stored user.
+     */
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+        when(userRepository.findUserDTOById(1L))
+                .thenReturn(Optional.of(new UserDTO(1L, "testuser", "test@example.com", "Test", "User")));
+    }
+
+    /**
+     * Verifies that repeated lookups of the same id are served from the cache.
+     *
+     * @throws ResourceNotFoundException If the user is not found.
+     */
+    @Test
+    void getUserByIdCachedTest() throws ResourceNotFoundException {
+        userService.getUserById(1L);
+        UserDTO second = userService.getUserById(1L);
+
+        assertEquals("testuser", second.getUsername());
+        verify(userRepository, times(1)).findUserDTOById(1L);
+    }
+
+    /**
+     * Verifies that missing users are not cached, so a later insert becomes visible.
+     */
+    @Test
+    void getUserByIdNotFoundNotCachedTest() {
+        when(userRepository.findUserDTOById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(2L));
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(2L));
+        verify(userRepository, times(2)).findUserDTOById(2L);
+    }
+
+    /**
+     * Verifies that updateUser evicts the cached entry, so the next lookup reads the updated user.
+     *
+     * @throws Exception If the user is not found or the email is taken.
+     */
+    @Test
+    void updateUserEvictsCacheTest() throws Exception {
+        userService.getUserById(1L);
+        User user = new User();
+        ReflectionTestUtils.setField(user, "id", 1L);
+        user.setUsername("testuser");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UserRequestDTO request = new UserRequestDTO();
+        request.setEmail("updated@example.com");
+
+        userService.updateUser(1L, request, null);
+        when(userRepository.findUserDTOById(1L))
+                .thenReturn(Optional.of(new UserDTO(1L, "testuser", "updated@example.com", "Test", "User")));
+
+        assertEquals("updated@example.com", userService.getUserById(1L).getEmail());
+        verify(userRepository, times(2)).findUserDTOById(1L);
+    }
+
+    /**
+     * Verifies that deleteUser evicts the cached entry.
+     *
+     * @throws ResourceNotFoundException If the user is not found.
+     * @throws DuplicateResourceException Never thrown here.
+     */
+    @Test
+    void deleteUserEvictsCacheTest() throws ResourceNotFoundException, DuplicateResourceException {
+        userService.getUserById(1L);
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
+
+        userService.deleteUser(1L);
+        userService.getUserById(1L);
+
+        verify(userRepository, times(2)).findUserDTOById(1L);
+    }
+}
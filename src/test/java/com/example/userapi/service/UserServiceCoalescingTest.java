@@ -0,0 +1,156 @@
+package com.example.userapi.service;
+
+import com.example.userapi.config.CacheConfig;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that concurrent identical reads reach the repository once, through the caching proxy.
+ */
+@SpringJUnitConfig(UserServiceCoalescingTest.TestConfig.class)
+public class UserServiceCoalescingTest {
+
+    private static final int CALLERS = 8;
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @Import({CacheConfig.class, UserService.class, CoalescingAspect.class})
+    static class TestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    @MockBean
+    private UserExistenceFilter existenceFilter;
+
+    @MockBean
+    private UserSearchIndex searchIndex;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private UserBatchLoader batchLoader;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Verifies that a burst of lookups for a missing id runs one query and every caller gets the 404.
+     * The cache alone would let the waiting callers retry the failed load one after another.
+     */
+    @Test
+    void concurrentMissesForAMissingIdShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findUserDTOById(404L)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        List<Object> results = runConcurrently("getUserById", release, () -> userService.getUserById(404L));
+
+        results.forEach(result -> assertInstanceOf(ResourceNotFoundException.class, result));
+        verify(userRepository, times(1)).findUserDTOById(404L);
+    }
+
+    /**
+     * Verifies that concurrent existence checks of one username share one query and its answer.
+     */
+    @Test
+    void concurrentUsernameChecksShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(existenceFilter.mightContainUsername("alice")).thenReturn(true);
+        when(userRepository.existsByUsername("alice")).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        List<Object> results = runConcurrently("usernameExists", release, () -> userService.usernameExists("alice"));
+
+        results.forEach(result -> assertEquals(true, result));
+        verify(userRepository, times(1)).existsByUsername("alice");
+        verify(existenceFilter, times(1)).recordConfirmation(true);
+    }
+
+    /**
+     * Starts the callers, waits until all but one have joined the call in flight, then lets it finish.
+     *
+     * @return Each caller's result, or the exception it received.
+     */
+    private List<Object> runConcurrently(String method, CountDownLatch release, Callable<Object> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return call.call();
+                    } catch (Exception e) {
+                        return e;
+                    }
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced(method) < CALLERS - 1) {
+                assertTrue(System.nanoTime() < deadline, "callers did not join the call in flight");
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalesced(String method) {
+        FunctionCounter counter = meterRegistry.find(CoalescingAspect.COALESCED_COUNTER).tag("method", method).functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.userapi.service;
 
 import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserPageDTO;
+import com.example.userapi.dto.UserPatchDTO;
 import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.PreconditionFailedException;
 import com.example.userapi.exception.ResourceNotFoundException;
 import com.example.userapi.model.User;
+import com.example.userapi.repository.UserIdentity;
 import com.example.userapi.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +19,17 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,12 +41,22 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private UserExistenceFilter existenceFilter;
+
+    @Mock
+    private UserSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private UserService userService;
 
     private User user;
+    private UserDTO userDTO;
     private UserRequestDTO userRequestDTO;
 
     /**
@@ -53,6 +75,8 @@ public class UserServiceTest {
         user.setFirstName("Test");
         user.setLastName("User");
 
+        userDTO = new UserDTO(1L, "testuser", "test@example.com", "Test", "User");
+
         userRequestDTO = new UserRequestDTO();
         userRequestDTO.setUsername("newuser");
         userRequestDTO.setPassword("plainPassword");
@@ -62,17 +86,51 @@ public class UserServiceTest {
     }
 
     /**
-     * Tests the getAllUsers method to ensure it retrieves all users from the repository.
+     * Tests the getUsersPage method when more users exist after the requested page.
+     *
+     * - Verifies one extra row is fetched, trimmed from the page, and used to produce the next cursor.
+     */
+    @Test
+    void getUsersPageTest_HasNext() {
+        UserDTO second = new UserDTO(5L, "seconduser", "second@example.com", null, null);
+        when(userRepository.findUserDTOsByIdGreaterThan(0L, Limit.of(2))).thenReturn(new ArrayList<>(List.of(userDTO, second)));
+
+        UserPageDTO page = userService.getUsersPage(null, 1);
+
+        assertEquals(1, page.getUsers().size());
+        assertEquals("testuser", page.getUsers().get(0).getUsername());
+        assertEquals(1L, page.getNextCursor());
+    }
+
+    /**
+     * Tests the getUsersPage method on the last page.
+     *
+     * - Verifies the cursor is passed through, the limit is clamped, and no next cursor is returned.
+     */
+    @Test
+    void getUsersPageTest_LastPage() {
+        when(userRepository.findUserDTOsByIdGreaterThan(10L, Limit.of(UserService.MAX_PAGE_SIZE + 1))).thenReturn(List.of(userDTO));
+
+        UserPageDTO page = userService.getUsersPage(10L, 10_000);
+
+        assertEquals(1, page.getUsers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    /**
+     * Tests the streamUsers method.
      *
-     * - Verifies the returned list contains the expected UserDTOs.
+     * - Verifies every streamed user is handed to the consumer.
      */
     @Test
-    void getAllUsersTest() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        List<UserDTO> result = userService.getAllUsers();
-        assertEquals(1, result.size());
-        assertEquals("testuser", result.get(0).getUsername());
-        verify(userRepository, times(1)).findAll();
+    void streamUsersTest() {
+        when(userRepository.streamUserDTOsOrderedById()).thenReturn(Stream.of(userDTO));
+        List<UserDTO> received = new ArrayList<>();
+
+        userService.streamUsers(received::add);
+
+        assertEquals(1, received.size());
+        assertEquals("testuser", received.get(0).getUsername());
     }
 
     /**
@@ -83,11 +141,12 @@ public class UserServiceTest {
      */
     @Test
     void getUserByIdTest_Success() throws ResourceNotFoundException {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findUserDTOById(1L)).thenReturn(Optional.of(userDTO));
         UserDTO result = userService.getUserById(1L);
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
-        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findUserDTOById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     /**
@@ -97,20 +156,24 @@ public class UserServiceTest {
      */
     @Test
     void getUserByIdTest_NotFound() {
-        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        when(userRepository.findUserDTOById(2L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(2L));
-        verify(userRepository, times(1)).findById(2L);
+        verify(userRepository, times(1)).findUserDTOById(2L);
     }
 
     /**
      * Tests the createUser method for a valid request.
      *
      * - Verifies the User entity is saved correctly and the returned UserDTO matches the expected details.
+     * - Verifies availability is checked with a single combined query.
+     * @throws DuplicateResourceException If the username or email is taken.
      */
     @Test
-    void createUserTest() {
-        when(passwordEncoder.encode("plainPassword")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+    void createUserTest() throws DuplicateResourceException {
+        when(existenceFilter.mightContainUsername("newuser")).thenReturn(true);
+        when(userRepository.findByUsernameOrEmail("newuser", "new@example.com")).thenReturn(List.of());
+        when(passwordHashingService.encode("plainPassword")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
             User savedUser = invocation.getArgument(0, User.class);
             ReflectionTestUtils.setField(savedUser, "id", 2L);
             return savedUser;
@@ -121,8 +184,82 @@ public class UserServiceTest {
 
         // The returned UserDTO should now have the ID that we set via reflection
         assertEquals(2L, result.getId());
-        verify(passwordEncoder, times(1)).encode("plainPassword");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(passwordHashingService, times(1)).encode("plainPassword");
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository, never()).existsByEmail(any());
+        verify(existenceFilter, times(1)).recordConfirmation(false);
+        verify(existenceFilter, times(1)).recordUser("newuser", "new@example.com");
+        verify(searchIndex, times(1)).index(any(UserDTO.class));
+    }
+
+    /**
+     * Tests the createUser method when the existence filter rules out both the username and the email.
+     *
+     * - Verifies the availability query is skipped and the user is still saved.
+     * @throws DuplicateResourceException If the username or email is taken.
+     */
+    @Test
+    void createUserTest_FilterNegative() throws DuplicateResourceException {
+        when(passwordHashingService.encode("plainPassword")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.createUser(userRequestDTO);
+
+        verify(existenceFilter, times(1)).mightContainEmail("new@example.com");
+        verify(userRepository, never()).findByUsernameOrEmail(any(), any());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+    }
+
+    /**
+     * Tests the createUser method when the pre-check finds the username or email in use.
+     *
+     * - Ensures a DuplicateResourceException names the conflicting field and nothing is hashed or saved.
+     * @param takenUsername The username held by the existing user.
+     * @param takenEmail    The email held by the existing user.
+     * @param field         The field expected to be reported.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "newuser, other@example.com, username",
+            "otheruser, new@example.com, email"
+    })
+    void createUserTest_Conflict(String takenUsername, String takenEmail, String field) {
+        when(existenceFilter.mightContainUsername("newuser")).thenReturn(true);
+        when(userRepository.findByUsernameOrEmail("newuser", "new@example.com"))
+                .thenReturn(List.of(identity(takenUsername, takenEmail)));
+
+        DuplicateResourceException ex = assertThrows(DuplicateResourceException.class, () -> userService.createUser(userRequestDTO));
+        assertEquals(field, ex.getField());
+        verify(passwordHashingService, never()).encode(any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Tests the createUser method when a concurrent signup wins the race after the pre-check.
+     *
+     * - Ensures the unique constraint violation is mapped to a DuplicateResourceException for the right field,
+     *   even when the pre-check was skipped.
+     */
+    @Test
+    void createUserTest_ConstraintViolation() {
+        when(passwordHashingService.encode("plainPassword")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), "PUBLIC.UK_USERS_EMAIL_INDEX_4")));
+
+        DuplicateResourceException ex = assertThrows(DuplicateResourceException.class, () -> userService.createUser(userRequestDTO));
+        assertEquals("email", ex.getField());
+    }
+
+    /**
+     * Tests that integrity violations unrelated to the unique fields are not reported as duplicates.
+     */
+    @Test
+    void toDuplicateResourceExceptionTest_OtherConstraint() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed",
+                new ConstraintViolationException("NULL not allowed", new SQLException(), null));
+
+        assertThrows(DataIntegrityViolationException.class, () -> UserService.toDuplicateResourceException(violation));
     }
 
     /**
@@ -132,20 +269,91 @@ public class UserServiceTest {
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Test
-    void updateUserTest_Success() throws ResourceNotFoundException {
+    void updateUserTest_Success() throws Exception {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         userRequestDTO.setEmail("updated@example.com");
         userRequestDTO.setPassword("newPassword");
-        when(passwordEncoder.encode("newPassword")).thenReturn("encodedNewPassword");
+        when(passwordHashingService.encodeReplacing("newPassword", "encodedPassword")).thenReturn("encodedNewPassword");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        UserDTO updated = userService.updateUser(1L, userRequestDTO);
+        UserDTO updated = userService.updateUser(1L, userRequestDTO, null);
         assertEquals("updated@example.com", updated.getEmail());
         assertEquals("encodedNewPassword", user.getPassword());
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).save(user);
     }
 
+    /**
+     * Tests the updateUser method when the user is no longer at the version the client saw.
+     *
+     * - Ensures a PreconditionFailedException is thrown before the password is hashed or anything is written.
+     */
+    @Test
+    void updateUserTest_VersionMismatch() {
+        ReflectionTestUtils.setField(user, "version", 3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userRequestDTO.setPassword("newPassword");
+
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser(1L, userRequestDTO, 2L));
+        verify(passwordHashingService, never()).encodeReplacing(anyString(), anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    /**
+     * Tests the patchUser method when only names are supplied.
+     *
+     * - Verifies a single unconditional UPDATE is issued, no password is hashed and the user is not loaded first.
+     * @throws Exception If the user is not found or the email is taken.
+     */
+    @Test
+    void patchUserTest_WithoutPassword() throws Exception {
+        UserPatchDTO patch = new UserPatchDTO();
+        patch.setFirstName("Patched");
+        UserDTO patched = new UserDTO(1L, "testuser", "test@example.com", "Patched", "User", 1L);
+        when(userRepository.patch(1L, null, "Patched", null, null)).thenReturn(1);
+        when(userRepository.findUserDTOById(1L)).thenReturn(Optional.of(patched));
+
+        UserDTO result = userService.patchUser(1L, patch, null);
+
+        assertEquals("Patched", result.getFirstName());
+        assertEquals(1L, result.getVersion());
+        verifyNoInteractions(passwordHashingService);
+        verify(userRepository, never()).findById(anyLong());
+        verify(searchIndex).index(patched);
+    }
+
+    /**
+     * Tests the patchUser method when the user is no longer at the expected version.
+     *
+     * - Ensures a PreconditionFailedException is thrown when the versioned UPDATE matches no row but the user exists.
+     */
+    @Test
+    void patchUserTest_VersionMismatch() {
+        UserPatchDTO patch = new UserPatchDTO();
+        patch.setPassword("newPassword");
+        when(passwordHashingService.encode("newPassword")).thenReturn("encodedNewPassword");
+        when(userRepository.patchIfVersion(1L, 2L, null, null, null, "encodedNewPassword")).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> userService.patchUser(1L, patch, 2L));
+        verify(searchIndex, never()).index(any());
+    }
+
+    /**
+     * Tests the patchUser method for an invalid user ID.
+     *
+     * - Ensures a ResourceNotFoundException is thrown when the UPDATE matches no row.
+     */
+    @Test
+    void patchUserTest_NotFound() {
+        when(userRepository.patch(2L, "new@example.com", null, null, null)).thenReturn(0);
+        UserPatchDTO patch = new UserPatchDTO();
+        patch.setEmail("new@example.com");
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.patchUser(2L, patch, null));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
     /**
      * Tests the updateUser method for an invalid user ID.
      *
@@ -154,33 +362,53 @@ public class UserServiceTest {
     @Test
     void updateUserTest_NotFound() {
         when(userRepository.findById(2L)).thenReturn(Optional.empty());
-        assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(2L, userRequestDTO));
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(2L, userRequestDTO, null));
         verify(userRepository, times(1)).findById(2L);
     }
 
     /**
      * Tests the deleteUser method for a valid user ID.
      *
-     * - Ensures the User entity is deleted successfully.
+     * - Ensures the user is deleted with a single statement, without being loaded first.
      * @throws ResourceNotFoundException If the user is not found.
      */
     @Test
     void deleteUserTest_Success() throws ResourceNotFoundException {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
         userService.deleteUser(1L);
-        verify(userRepository, times(1)).delete(user);
+        verify(userRepository, never()).findById(anyLong());
+        verify(existenceFilter, times(1)).recordDeletion();
+        verify(searchIndex, times(1)).remove(1L);
     }
 
     /**
      * Tests the deleteUser method for an invalid user ID.
      *
-     * - Ensures a ResourceNotFoundException is thrown.
+     * - Ensures a ResourceNotFoundException is thrown when the DELETE affects no row.
      */
     @Test
     void deleteUserTest_NotFound() {
-        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(2L)).thenReturn(0);
         assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(2L));
-        verify(userRepository, times(1)).findById(2L);
+        verify(searchIndex, never()).remove(anyLong());
+    }
+
+    /**
+     * Tests the deleteUser method in soft-delete mode.
+     *
+     * - Ensures the user is stamped as deleted instead of removed, and its username and email stay taken.
+     * @throws ResourceNotFoundException If the user is not found.
+     */
+    @Test
+    void deleteUserTest_SoftDelete() throws ResourceNotFoundException {
+        ReflectionTestUtils.setField(userService, "softDelete", true);
+        when(userRepository.softDeleteById(eq(1L), any(Instant.class))).thenReturn(1);
+
+        userService.deleteUser(1L);
+
+        verify(userRepository, never()).deleteUserById(anyLong());
+        verify(existenceFilter, never()).recordDeletion();
+        verify(searchIndex, times(1)).remove(1L);
     }
 
     /**
@@ -194,6 +422,7 @@ public class UserServiceTest {
             "newUser, false"
     })
     void testUsernameExists(String username, boolean expectedResult) {
+        when(existenceFilter.mightContainUsername(username)).thenReturn(true);
         when(userRepository.existsByUsername(username)).thenReturn(expectedResult);
         boolean result = userService.usernameExists(username);
         assertEquals(expectedResult, result, "usernameExists should return the expected result");
@@ -211,10 +440,37 @@ public class UserServiceTest {
             "new@example.com, false"
     })
     void testEmailExists(String email, boolean expectedResult) {
+        when(existenceFilter.mightContainEmail(email)).thenReturn(true);
         when(userRepository.existsByEmail(email)).thenReturn(expectedResult);
         boolean result = userService.emailExists(email);
         assertEquals(expectedResult, result, "emailExists should return the expected result");
         verify(userRepository, times(1)).existsByEmail(email);
     }
 
+    /**
+     * Tests the usernameExists and emailExists methods when the existence filter rules the value out.
+     *
+     * - Verifies the database is not queried.
+     */
+    @Test
+    void testExistsShortCircuit() {
+        assertFalse(userService.usernameExists("unknownUser"));
+        assertFalse(userService.emailExists("unknown@example.com"));
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    private static UserIdentity identity(String username, String email) {
+        return new UserIdentity() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
 }
@@ -0,0 +1,108 @@
+package com.example.userapi.service;
+
+import com.example.userapi.dto.BatchItemResultDTO;
+import com.example.userapi.dto.UserDTO;
+import com.example.userapi.dto.UserRequestDTO;
+import com.example.userapi.exception.DuplicateResourceException;
+import com.example.userapi.exception.ResourceNotFoundException;
+import com.example.userapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs deletion in soft-delete mode against the embedded database, so the row filter on the
+ * entity and the native purge are exercised for real.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "userapi.soft-delete.enabled=true",
+        "userapi.soft-delete.retention=0s",
+        "userapi.soft-delete.purge-chunk-size=1",
+        "userapi.password.bcrypt.strength=4"
+})
+public class UserSoftDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserPurgeJob purgeJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Removes the users created here, including soft-deleted ones that the repository cannot see.
+     * The embedded database is shared with other test contexts, so counts below are relative.
+     */
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where username in ('alice', 'bob', 'carol', 'dave')");
+    }
+
+    @Test
+    void deletedUserIsHiddenAndKeepsItsUsernameUntilPurged() throws Exception {
+        int rows = storedRows();
+        UserDTO alice = userService.createUser(request("alice", "alice@example.com"));
+
+        userService.deleteUser(alice.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(alice.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(alice.getId()));
+        assertTrue(userRepository.findByUsername("alice").isEmpty());
+        assertEquals(rows + 1, storedRows());
+        assertThrows(DuplicateResourceException.class, () -> userService.createUser(request("alice", "other@example.com")));
+
+        assertEquals(1, purgeJob.purge());
+
+        assertEquals(rows, storedRows());
+        assertEquals("alice", userService.createUser(request("alice", "alice@example.com")).getUsername());
+    }
+
+    @Test
+    void batchDeleteSoftDeletesAndPurgeRemovesInChunks() {
+        long visible = userRepository.count();
+        int rows = storedRows();
+        List<BatchItemResultDTO> created = userBatchService.createUsers(List.of(
+                request("bob", "bob@example.com"),
+                request("carol", "carol@example.com"),
+                request("dave", "dave@example.com")
+        ));
+
+        List<BatchItemResultDTO> results = userBatchService.deleteUsers(List.of(
+                created.get(0).getId(), created.get(1).getId(), -1L));
+
+        assertEquals(List.of(200, 200, 404), results.stream().map(BatchItemResultDTO::getStatus).toList());
+        assertEquals(visible + 1, userRepository.count());
+        assertEquals(rows + 3, storedRows());
+
+        assertEquals(2, purgeJob.purge());
+        assertEquals(rows + 1, storedRows());
+    }
+
+    private int storedRows() {
+        return jdbcTemplate.queryForObject("select count(*) from users", Integer.class);
+    }
+
+    private static UserRequestDTO request(String username, String email) {
+        UserRequestDTO request = new UserRequestDTO();
+        request.setUsername(username);
+        request.setPassword("secret123");
+        request.setEmail(email);
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.userapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    /**
+     * Verifies that every added value is reported as possibly present.
+     */
+    @Test
+    void noFalseNegativesTest() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertEquals(10_000, filter.approximateInsertions(), 50);
+    }
+
+    /**
+     * Verifies that the false positive rate at the sized capacity stays close to the target,
+     * and that the fill-based estimate agrees with it.
+     */
+    @Test
+    void falsePositiveRateTest() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        double observed = falsePositives / 100_000.0;
+        assertTrue(observed < 0.02, "observed false positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.01);
+    }
+
+    /**
+     * Verifies that an empty filter rules everything out and reports no false positives.
+     */
+    @Test
+    void emptyFilterTest() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assertFalse(filter.mightContain("anyone"));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+
+    /**
+     * Verifies that invalid sizing parameters are rejected.
+     */
+    @Test
+    void invalidParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
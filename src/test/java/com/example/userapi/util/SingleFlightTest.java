@@ -0,0 +1,113 @@
+package com.example.userapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    /**
+     * Verifies that callers arriving while a call is in flight share its result, and that the call
+     * runs again once it has completed.
+     */
+    @Test
+    void concurrentCallsShareOneInvocationTest() throws Throwable {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        return flight.execute("alice", () -> {
+                            invocations.incrementAndGet();
+                            release.await();
+                            return 42;
+                        });
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }));
+            }
+            awaitShared(flight, 3);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, invocations.get());
+        assertEquals(3, flight.sharedCalls());
+        assertEquals(0, flight.inFlight());
+        assertEquals(7, flight.execute("alice", () -> 7));
+        assertEquals(3, flight.sharedCalls());
+    }
+
+    /**
+     * Verifies that every caller sharing a failed call receives the original exception.
+     */
+    @Test
+    void sharedCallersReceiveTheSameExceptionTest() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        Exception failure = new Exception("User not found with id 1");
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Throwable>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        flight.execute(1L, () -> {
+                            release.await();
+                            throw failure;
+                        });
+                        return null;
+                    } catch (Throwable t) {
+                        return t;
+                    }
+                }));
+            }
+            awaitShared(flight, 2);
+            release.countDown();
+            for (Future<Throwable> result : results) {
+                assertSame(failure, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    /**
+     * Verifies that calls for different keys do not wait for each other.
+     */
+    @Test
+    void differentKeysRunIndependentlyTest() throws Throwable {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        String result = flight.execute("alice", () -> flight.execute("bob", () -> "bob"));
+
+        assertEquals("bob", result);
+        assertEquals(0, flight.sharedCalls());
+    }
+
+    private static void awaitShared(SingleFlight<?, ?> flight, long calls) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.sharedCalls() < calls) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join the call in flight");
+            Thread.onSpinWait();
+        }
+    }
+}